@@ -0,0 +1,111 @@
+package com.mygame.client;
+
+import com.mygame.engine.Ball;
+import com.mygame.engine.InputFrame;
+import com.mygame.engine.Pitch;
+import com.mygame.engine.Player;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.WritableImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link RenderSystem#render} frame on an off-screen canvas.
+ * The canvas is snapshotted after each frame so the recorded draw commands
+ * are actually rasterised instead of piling up in the canvas buffer.
+ * Needs a display (or Monocle headless) for the JavaFX toolkit.
+ *
+ * {@link #renderSteadyState} moves the ball every call, so each frame
+ * really erases and redraws it; its gc.alloc.rate.norm should stay at
+ * ~0 B/op, which RenderAllocationTest enforces in the build. Scores go to
+ * a temporary spool, never the player's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    private static final double BALL_X = Pitch.WIDTH / 2.0, BALL_Y = Pitch.HEIGHT - 140;
+
+    private Canvas canvas;
+    private WritableImage target;
+    private RenderSystem render;
+    private GameState state;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Platform.startup(() -> { });
+        onFxThread(() -> {
+            canvas = new Canvas(Pitch.WIDTH, Pitch.HEIGHT);
+            target = new WritableImage(Pitch.WIDTH, Pitch.HEIGHT);
+            render = new RenderSystem(canvas.getGraphicsContext2D());
+            render.setAssets(new AssetLoader(new SpriteCache(null)).load());
+            state = new GameState(render, new UIController(),
+                    new RestClient(Files.createTempDirectory("render-bench-spool")));
+            state.initLocalGame(new Player("Player 1", 1, true),
+                                new Player("Player 2", 2, false),
+                                new Ball(BALL_X, BALL_Y));
+            // First frame builds the cached layers (needs the FX thread)
+            render.render(state);
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        state.close();
+        Platform.exit();
+    }
+
+    @Benchmark
+    public WritableImage renderFrame() throws Exception {
+        return onFxThread(() -> {
+            state.getMatch().update(InputFrame.NONE);
+            render.render(state);
+            return canvas.snapshot(null, target);
+        });
+    }
+
+    /**
+     * Match + render on the benchmark thread (the canvas is not in a scene, so
+     * that is allowed), without the FX thread hand-off of {@link #renderFrame}.
+     * The ball moves each call, otherwise dirty-region tracking would leave
+     * nothing to draw. The canvas is cleared each call so its command buffer
+     * does not grow.
+     */
+    @Benchmark
+    public GameState renderSteadyState() {
+        state.getMatch().update(InputFrame.NONE);
+        frame = (frame + 1) & 63;
+        state.getBall().setPosition(BALL_X + frame, BALL_Y);
+        render.render(state);
+        canvas.getGraphicsContext2D().clearRect(0, 0, Pitch.WIDTH, Pitch.HEIGHT);
+        return state;
+    }
+
+    private static <T> T onFxThread(Callable<T> work) throws Exception {
+        FutureTask<T> task = new FutureTask<>(work);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
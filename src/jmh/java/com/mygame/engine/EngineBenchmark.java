@@ -0,0 +1,83 @@
+package com.mygame.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the simulation hot paths (one call = one 60 UPS tick).
+ * Run with {@code mvn -Pjmh test-compile exec:exec}; the gc profiler adds
+ * gc.alloc.rate.norm (bytes allocated per op) to the report.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineBenchmark {
+
+    /**
+     * Both players mash left + confirm: every turn resolves on its first
+     * tick, then the ball flies until it leaves the pitch, so a run
+     * covers selection, resolution, flight and role swap.
+     */
+    private static final InputFrame MASHING = new InputFrame() {
+        @Override public boolean left(int playerId) { return true; }
+        @Override public boolean right(int playerId) { return false; }
+        @Override public boolean powerUp(int playerId) { return false; }
+        @Override public boolean powerDown(int playerId) { return false; }
+        @Override public boolean confirm(int playerId) { return true; }
+    };
+
+    private MatchState match;
+    private Ball ball;
+    private Player player;
+
+    @Setup
+    public void setUp() {
+        match = MatchState.newMatch("Player 1", "Player 2");
+        ball = new Ball(Pitch.WIDTH / 2.0, Pitch.HEIGHT - 140);
+        player = new Player("Player 1", 1, true);
+    }
+
+    @Benchmark
+    public MatchState matchUpdate() {
+        if (match.isOver()) {
+            match = MatchState.newMatch("Player 1", "Player 2");
+        }
+        match.update(MASHING);
+        return match;
+    }
+
+    @Benchmark
+    public Ball ballTick() {
+        if (!ball.isMoving()) {
+            ball.setPosition(Pitch.WIDTH / 2.0, Pitch.HEIGHT - 140);
+            ball.shoot(Direction.LEFT, 0.5);
+        }
+        ball.tick();
+        return ball;
+    }
+
+    @Benchmark
+    public Ball ballShoot() {
+        ball.shoot(Direction.RIGHT, 0.75);
+        return ball;
+    }
+
+    @Benchmark
+    public Player playerTick() {
+        player.tick();
+        return player;
+    }
+}
@@ -0,0 +1,185 @@
+package com.mygame.client;
+
+import com.mygame.engine.Ball;
+import javafx.scene.image.Image;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Loads the sprite sheets and the field image off the FX thread.
+ *
+ * Each sheet is read, decoded, sliced and scaled on its own worker (they are
+ * independent), then all frames are packed into one {@link SpriteAtlas}.
+ * With a {@link SpriteCache} a warm start maps the already scaled frames
+ * instead of decoding the PNGs. Nothing here touches the scene graph; hand
+ * the result to {@link RenderSystem#setAssets} on the FX thread.
+ */
+public class AssetLoader {
+
+    public static final String FIELD_RESOURCE = "/Field.png";
+
+    private static final class Sheet {
+        final String name, resource;
+        final int frameW, frameH, drawW, drawH;
+
+        Sheet(String name, String resource, int frameW, int frameH, int drawW, int drawH) {
+            this.name = name;
+            this.resource = resource;
+            this.frameW = frameW;
+            this.frameH = frameH;
+            this.drawW = drawW;
+            this.drawH = drawH;
+        }
+    }
+
+    private static final Sheet[] SHEETS = {
+        new Sheet("striker", "/striker_sheet-removebg-preview.png",
+                  RenderSystem.FRAME_W, RenderSystem.FRAME_H, RenderSystem.PLAYER_DRAW_W, RenderSystem.PLAYER_DRAW_H),
+        new Sheet("keeper", "/keeper_sheet-removebg-preview.png",
+                  RenderSystem.FRAME_W, RenderSystem.FRAME_H, RenderSystem.PLAYER_DRAW_W, RenderSystem.PLAYER_DRAW_H),
+        new Sheet("ball", "/Ball-no-Background.png",
+                  RenderSystem.BALL_FRAME_W, RenderSystem.BALL_FRAME_H, Ball.BALL_SIZE, Ball.BALL_SIZE),
+    };
+
+    /**
+     * Everything RenderSystem draws from. Missing resources leave the
+     * matching strip empty (or the field null) and are drawn as placeholders.
+     */
+    public static final class Assets {
+        private final SpriteAtlas atlas;
+        private final Image field;
+        private final long loadNanos;
+        private final int cacheHits, cacheMisses;
+
+        Assets(SpriteAtlas atlas, Image field, long loadNanos, int cacheHits, int cacheMisses) {
+            this.atlas = atlas;
+            this.field = field;
+            this.loadNanos = loadNanos;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+        }
+
+        public SpriteAtlas getAtlas() { return atlas; }
+        public Image getField() { return field; }
+        public long getLoadNanos() { return loadNanos; }
+        public int getCacheHits() { return cacheHits; }
+        public int getCacheMisses() { return cacheMisses; }
+    }
+
+    private final SpriteCache cache;
+
+    public AssetLoader() {
+        this(SpriteCache.fromSystemProperties());
+    }
+
+    public AssetLoader(SpriteCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Starts loading on background threads.
+     * @param progress called with 0..1 as steps finish, from a worker thread
+     */
+    public CompletableFuture<Assets> loadAsync(DoubleConsumer progress) {
+        long start = System.nanoTime();
+        int workers = Math.min(SHEETS.length + 1, Math.max(1, Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "asset-loader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        int steps = SHEETS.length + 2; // sheets, field, packing
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger misses = new AtomicInteger();
+        Runnable stepDone = () -> progress.accept(done.incrementAndGet() / (double) steps);
+        progress.accept(0);
+
+        List<CompletableFuture<SpriteAtlas.Frames>> frames = new ArrayList<>();
+        for (Sheet sheet : SHEETS) {
+            frames.add(CompletableFuture.supplyAsync(() -> {
+                SpriteAtlas.Frames f = loadSheet(sheet, hits, misses);
+                stepDone.run();
+                return f;
+            }, pool));
+        }
+        CompletableFuture<Image> field = CompletableFuture.supplyAsync(() -> {
+            Image img = loadImage(FIELD_RESOURCE);
+            stepDone.run();
+            return img;
+        }, pool);
+
+        return CompletableFuture.allOf(frames.toArray(new CompletableFuture<?>[0]))
+                .thenApplyAsync(v -> {
+                    // Pack every frame into one texture at its drawn size
+                    SpriteAtlas.Builder builder = new SpriteAtlas.Builder();
+                    for (int i = 0; i < SHEETS.length; i++) {
+                        builder.add(SHEETS[i].name, frames.get(i).join());
+                    }
+                    SpriteAtlas atlas = builder.build();
+                    stepDone.run();
+                    return atlas;
+                }, pool)
+                .thenCombine(field, (atlas, img) ->
+                        new Assets(atlas, img, System.nanoTime() - start, hits.get(), misses.get()))
+                .whenComplete((a, e) -> pool.shutdown());
+    }
+
+    /**
+     * Loads on the background threads and waits, e.g. for benchmarks and tools.
+     */
+    public Assets load() {
+        return loadAsync(p -> { }).join();
+    }
+
+    private SpriteAtlas.Frames loadSheet(Sheet sheet, AtomicInteger hits, AtomicInteger misses) {
+        try {
+            byte[] png = readResource(sheet.resource);
+            if (png == null) return null;
+            CRC32C crc = new CRC32C();
+            crc.update(png);
+            long sum = crc.getValue();
+
+            SpriteAtlas.Frames cached = cache.load(sheet.name, sum, sheet.frameW, sheet.frameH, sheet.drawW, sheet.drawH);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            if (cache.isEnabled()) misses.incrementAndGet();
+            Image img = new Image(new ByteArrayInputStream(png));
+            SpriteAtlas.Frames f = SpriteAtlas.Frames.slice(img, sheet.frameW, sheet.frameH, sheet.drawW, sheet.drawH);
+            cache.store(sheet.name, sum, sheet.frameW, sheet.frameH, f);
+            return f;
+        } catch (Exception e) {
+            // The strip stays EMPTY, so the placeholder shapes are drawn instead
+            System.err.println("Error loading sprite sheet " + sheet.resource + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Image loadImage(String resource) {
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            return in != null ? new Image(in) : null;
+        } catch (IOException e) {
+            System.err.println("Error loading " + resource + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] readResource(String resource) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            return in != null ? in.readAllBytes() : null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mygame.client;
+
+/**
+ * Remembers where each dynamic item (player, ball, HUD line...) was drawn in
+ * the previous frame and what it looked like, so a frame only has to repaint
+ * the items that changed.
+ *
+ * Each item is a fixed slot with a bounding rectangle and a signature of
+ * everything that affects its pixels. A slot is dirty when either changed.
+ * Unchanged slots overlapping a dirty slot's old or new rectangle become dirty
+ * too, so every pixel that gets erased is also drawn again.
+ * Allocation-free: all state lives in primitive arrays.
+ */
+public class DirtyRegions {
+
+    private final int slots;
+
+    private final double[] oldX, oldY, oldW, oldH;
+    private final long[] oldSig;
+    private final boolean[] oldDrawn;
+
+    private final double[] newX, newY, newW, newH;
+    private final long[] newSig;
+    private final boolean[] newDrawn;
+
+    private final boolean[] dirty;
+    private boolean invalidated = true;
+
+    public DirtyRegions(int slots) {
+        this.slots = slots;
+        oldX = new double[slots]; oldY = new double[slots]; oldW = new double[slots]; oldH = new double[slots];
+        newX = new double[slots]; newY = new double[slots]; newW = new double[slots]; newH = new double[slots];
+        oldSig = new long[slots];
+        newSig = new long[slots];
+        oldDrawn = new boolean[slots];
+        newDrawn = new boolean[slots];
+        dirty = new boolean[slots];
+    }
+
+    /**
+     * Declares that a slot will be drawn this frame inside the given rectangle.
+     */
+    public void set(int slot, double x, double y, double w, double h, long signature) {
+        newX[slot] = x; newY[slot] = y; newW[slot] = w; newH[slot] = h;
+        newSig[slot] = signature;
+        newDrawn[slot] = true;
+    }
+
+    /**
+     * Declares that a slot is not drawn this frame.
+     */
+    public void hide(int slot) {
+        newDrawn[slot] = false;
+    }
+
+    /**
+     * Forces the next frame to repaint everything (e.g. after the background was redrawn).
+     */
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    public boolean isInvalidated() {
+        return invalidated;
+    }
+
+    /**
+     * Works out the dirty slots for this frame.
+     * @return true if anything has to be repainted
+     */
+    public boolean resolve() {
+        boolean any = false;
+        for (int i = 0; i < slots; i++) {
+            dirty[i] = invalidated || changed(i);
+            any |= dirty[i];
+        }
+        if (invalidated || !any) return any;
+
+        // Pull in clean slots touched by a dirty slot until nothing changes
+        boolean grew = true;
+        while (grew) {
+            grew = false;
+            for (int i = 0; i < slots; i++) {
+                if (dirty[i] || !oldDrawn[i]) continue;
+                for (int j = 0; j < slots; j++) {
+                    if (!dirty[j]) continue;
+                    if ((oldDrawn[j] && overlaps(i, oldX[j], oldY[j], oldW[j], oldH[j]))
+                            || (newDrawn[j] && overlaps(i, newX[j], newY[j], newW[j], newH[j]))) {
+                        dirty[i] = true;
+                        grew = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean changed(int i) {
+        if (oldDrawn[i] != newDrawn[i]) return true;
+        if (!newDrawn[i]) return false;
+        return oldSig[i] != newSig[i] || oldX[i] != newX[i] || oldY[i] != newY[i]
+                || oldW[i] != newW[i] || oldH[i] != newH[i];
+    }
+
+    // Clean slots keep their old rectangle, which equals the new one
+    private boolean overlaps(int i, double x, double y, double w, double h) {
+        return oldX[i] < x + w && x < oldX[i] + oldW[i] && oldY[i] < y + h && y < oldY[i] + oldH[i];
+    }
+
+    public boolean isDirty(int slot) { return dirty[slot]; }
+    public boolean isDrawn(int slot) { return newDrawn[slot]; }
+
+    /**
+     * True if the slot is dirty and had something on screen that must be erased.
+     */
+    public boolean needsErase(int slot) { return dirty[slot] && oldDrawn[slot]; }
+    public double getOldX(int slot) { return oldX[slot]; }
+    public double getOldY(int slot) { return oldY[slot]; }
+    public double getOldW(int slot) { return oldW[slot]; }
+    public double getOldH(int slot) { return oldH[slot]; }
+
+    /**
+     * Makes this frame's rectangles the reference for the next one.
+     */
+    public void commit() {
+        for (int i = 0; i < slots; i++) {
+            oldX[i] = newX[i]; oldY[i] = newY[i]; oldW[i] = newW[i]; oldH[i] = newH[i];
+            oldSig[i] = newSig[i];
+            oldDrawn[i] = newDrawn[i];
+            newDrawn[i] = false;
+        }
+        invalidated = false;
+    }
+}
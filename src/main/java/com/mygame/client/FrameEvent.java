@@ -0,0 +1,44 @@
+package com.mygame.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One frame of the game loop, for Flight Recorder.
+ * Enable with e.g. {@code -XX:StartFlightRecording} and look for "com.mygame.Frame".
+ */
+@Name("com.mygame.Frame")
+@Label("Game Frame")
+@Category({"Penalty Game", "Game Loop"})
+@Description("Time spent in one AnimationTimer pulse, split by phase")
+@StackTrace(false)
+public class FrameEvent extends Event {
+
+    @Label("Ticks")
+    @Description("Simulation ticks run in this frame (more than 1 means catch-up)")
+    public int ticks;
+
+    @Label("Tick Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long tickNanos;
+
+    @Label("Render Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long renderNanos;
+
+    @Label("UI Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long uiNanos;
+
+    @Label("Frame Interval")
+    @Timespan(Timespan.NANOSECONDS)
+    public long intervalNanos;
+
+    @Label("Dropped Frames")
+    public int dropped;
+}
@@ -0,0 +1,164 @@
+package com.mygame.client;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-phase timings of the game loop: tick, render, UI, whole frame and the
+ * interval between frames, plus catch-up and dropped-frame counters, and
+ * input-to-frame latency per action ({@link InputLatency}).
+ * Every frame is also emitted as a {@link FrameEvent} when JFR is recording.
+ *
+ * Recording is lock-free and allocation-free; reading is meant for the
+ * overlay and the exit report, a few times per second at most.
+ */
+public class FrameTelemetry {
+
+    // Display refresh the loop is paced by (AnimationTimer pulse)
+    public static final long PULSE_NANOS = 1_000_000_000L / 60;
+
+    private final LatencyHistogram tick = new LatencyHistogram();
+    private final LatencyHistogram render = new LatencyHistogram();
+    private final LatencyHistogram ui = new LatencyHistogram();
+    private final LatencyHistogram frame = new LatencyHistogram();
+    private final LatencyHistogram interval = new LatencyHistogram();
+    private final InputLatency inputLatency = new InputLatency();
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder catchUpPulses = new LongAdder();
+    private final LongAdder droppedFrames = new LongAdder();
+    private final LongAdder skippedTicks = new LongAdder();
+    private final LongAccumulator maxTicksPerPulse = new LongAccumulator(Math::max, 0);
+
+    // Expected time between rendered frames (the render cap, or one pulse)
+    private volatile long frameBudgetNanos = PULSE_NANOS;
+
+    private volatile long startNanos = System.nanoTime();
+
+    public void recordTick(long nanos) {
+        tick.record(nanos);
+        ticks.increment();
+    }
+
+    /**
+     * Records the ticks run in one AnimationTimer pulse, rendered or not.
+     */
+    public void recordPulse(int ticksRun) {
+        if (ticksRun > 1) catchUpPulses.increment();
+        maxTicksPerPulse.accumulate(ticksRun);
+    }
+
+    /**
+     * Records simulation time thrown away because a pulse exceeded its catch-up budget.
+     */
+    public void recordSkippedTicks(long count) {
+        skippedTicks.add(count);
+    }
+
+    public void setFrameBudgetNanos(long nanos) {
+        frameBudgetNanos = nanos;
+    }
+
+    /**
+     * Records one rendered frame.
+     * @param ticksRun simulation ticks run since the previous rendered frame
+     * @param tickNanos total time of those ticks
+     * @param intervalNanos time since the previous rendered frame (0 for the first one)
+     */
+    public void recordFrame(int ticksRun, long tickNanos, long renderNanos, long uiNanos, long intervalNanos) {
+        render.record(renderNanos);
+        ui.record(uiNanos);
+        frame.record(tickNanos + renderNanos + uiNanos);
+        frames.increment();
+
+        int dropped = 0;
+        if (intervalNanos > 0) {
+            interval.record(intervalNanos);
+            // A frame later than 1.5 budgets missed at least one slot
+            long budget = frameBudgetNanos;
+            if (intervalNanos > budget * 3 / 2) {
+                dropped = (int) ((intervalNanos + budget / 2) / budget) - 1;
+                droppedFrames.add(dropped);
+            }
+        }
+
+        FrameEvent event = new FrameEvent();
+        if (event.shouldCommit()) {
+            event.ticks = ticksRun;
+            event.tickNanos = tickNanos;
+            event.renderNanos = renderNanos;
+            event.uiNanos = uiNanos;
+            event.intervalNanos = intervalNanos;
+            event.dropped = dropped;
+            event.commit();
+        }
+    }
+
+    public LatencyHistogram getTick() { return tick; }
+    public LatencyHistogram getRender() { return render; }
+    public LatencyHistogram getUi() { return ui; }
+    public LatencyHistogram getFrame() { return frame; }
+    public LatencyHistogram getInterval() { return interval; }
+    public InputLatency getInputLatency() { return inputLatency; }
+
+    public long getFrames() { return frames.sum(); }
+    public long getTicks() { return ticks.sum(); }
+    public long getCatchUpPulses() { return catchUpPulses.sum(); }
+    public long getDroppedFrames() { return droppedFrames.sum(); }
+    public long getSkippedTicks() { return skippedTicks.sum(); }
+    public long getMaxTicksPerPulse() { return maxTicksPerPulse.get(); }
+
+    /**
+     * Average frames per second since start or the last reset.
+     */
+    public double getFps() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? getFrames() / seconds : 0;
+    }
+
+    public void reset() {
+        tick.reset();
+        render.reset();
+        ui.reset();
+        frame.reset();
+        interval.reset();
+        inputLatency.reset();
+        frames.reset();
+        ticks.reset();
+        catchUpPulses.reset();
+        droppedFrames.reset();
+        skippedTicks.reset();
+        maxTicksPerPulse.reset();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Multi-line summary, used by the overlay and the exit report.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("FPS %.1f  frames %d  dropped %d%n", getFps(), getFrames(), getDroppedFrames()));
+        sb.append(String.format("catch-up pulses %d  max ticks/pulse %d  skipped ticks %d%n",
+                getCatchUpPulses(), getMaxTicksPerPulse(), getSkippedTicks()));
+        sb.append("phase      p50     p99     max (ms)\n");
+        line(sb, "tick", tick);
+        line(sb, "render", render);
+        line(sb, "ui", ui);
+        line(sb, "frame", frame);
+        line(sb, "interval", interval);
+        inputLatency.appendSummary(sb);
+        return sb.toString();
+    }
+
+    private static void line(StringBuilder sb, String name, LatencyHistogram h) {
+        sb.append(String.format("%-8s %7.2f %7.2f %7.2f%n", name,
+                h.percentile(50) / 1e6, h.percentile(99) / 1e6, h.getMax() / 1e6));
+    }
+
+    public void print(PrintStream out) {
+        out.println("=== Frame telemetry ===");
+        out.print(summary());
+    }
+}
@@ -0,0 +1,77 @@
+package com.mygame.client;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Real-time clock driven by the JavaFX AnimationTimer pulse.
+ * Supports fast-forward / slow motion ({@link #setSpeed}), pausing and
+ * stepping one tick at a time while paused, for reviewing a match on screen.
+ */
+public class FxClock implements GameClock {
+
+    private AnimationTimer timer;
+    private double speed = 1.0;
+    private boolean paused = false;
+    private int pendingSteps = 0;
+
+    // Simulation time handed to the loop
+    private long simNow = 0;
+    private long last = 0;
+
+    @Override
+    public void start(GameLoop loop) {
+        stop();
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (last == 0) last = now;
+                long elapsed = now - last;
+                last = now;
+                if (!paused) {
+                    simNow += (long) (elapsed * speed);
+                } else if (pendingSteps > 0) {
+                    simNow += GameLoop.TICK_NANOS_CEIL * pendingSteps;
+                    pendingSteps = 0;
+                }
+                loop.pulse(simNow);
+            }
+        };
+        timer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (timer != null) timer.stop();
+        timer = null;
+        last = 0;
+    }
+
+    @Override
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @param speed 1 for real time, 4 for 4x fast-forward, 0.5 for slow motion
+     */
+    public void setSpeed(double speed) {
+        if (speed <= 0) throw new IllegalArgumentException("speed must be positive: " + speed);
+        this.speed = speed;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        pendingSteps = 0;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Advances one tick on the next pulse; only while paused.
+     */
+    public void step() {
+        if (paused) pendingSteps++;
+    }
+}
@@ -0,0 +1,20 @@
+package com.mygame.client;
+
+/**
+ * Source of simulation time for a {@link GameLoop}.
+ * A clock calls {@link GameLoop#pulse(long)} with its current time in nanos;
+ * the loop runs however many fixed ticks fit in the time that passed.
+ */
+public interface GameClock {
+
+    void start(GameLoop loop);
+
+    void stop();
+
+    /**
+     * Simulation seconds per wall-clock second; the loop scales its catch-up budget with it.
+     */
+    default double getSpeed() {
+        return 1.0;
+    }
+}
@@ -1,67 +1,183 @@
 package com.mygame.client;
 
-import javafx.animation.AnimationTimer;
+import com.mygame.engine.MatchState;
 
 /**
- * Fixed-step game loop using AnimationTimer for render and tick accumulation.
+ * Fixed-step game loop: a {@link GameClock} reports time, the loop runs the
+ * matching number of ticks and renders.
  * Tick rate: 60 updates per second (60 UPS).
+ *
+ * The default {@link FxClock} follows the JavaFX AnimationTimer in real time;
+ * a {@link VirtualClock} runs ticks on demand for tests and fast replays.
+ *
+ * At most {@link #setMaxCatchUpTicks maxCatchUpTicks} ticks run per pulse
+ * (scaled by the clock speed); time beyond that (a GC pause, a window drag)
+ * is dropped instead of being replayed in a burst that would make the next
+ * frame late too. Rendering is capped separately ({@link #setRenderCap}) in
+ * wall-clock time and interpolates the ball between the last two ticks using
+ * the leftover accumulator.
  */
 public class GameLoop {
 
-    private static final double TICKS_PER_SEC = 60.0;
+    private static final double TICKS_PER_SEC = MatchState.TICKS_PER_SECOND;
     private static final double NANOS_PER_TICK = 1e9 / TICKS_PER_SEC;
+    // Whole nanos that always cover one tick (the accumulator gains 1/3 ns per step)
+    static final long TICK_NANOS_CEIL = (long) Math.ceil(NANOS_PER_TICK);
+
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+    public static final int DEFAULT_RENDER_CAP = 60;
+    public static final int UNCAPPED = 0;
+
+    // Pulses jitter by a fraction of a millisecond; don't skip a frame over that
+    private static final long RENDER_SLACK_NANOS = 1_000_000L;
 
     private final GameState state;
-    private final RenderSystem render;
-    private final InputSystem input;
-    private final UIController ui;
+    private final RenderSystem render; // null when headless
+    private final InputSource input;
+    private final UIController ui;     // null when headless
+    private final FrameTelemetry telemetry;
 
-    private AnimationTimer timer;
+    private GameClock clock = new FxClock();
+    private int maxCatchUpTicks = DEFAULT_MAX_CATCH_UP_TICKS;
+    private long renderIntervalNanos;
     private boolean running = false;
 
-    public GameLoop(GameState state, RenderSystem render, InputSystem input, UIController ui) {
+    // Per-run loop state, reset by start()
+    private long lastSim;
+    private double accumulator;
+    private long nextRender;
+    private long lastRender;
+    // Ticks since the last rendered frame, for telemetry
+    private int pendingTicks;
+    private long pendingTickNanos;
+
+    public GameLoop(GameState state, RenderSystem render, InputSource input, UIController ui) {
+        this(state, render, input, ui, new FrameTelemetry());
+    }
+
+    public GameLoop(GameState state, RenderSystem render, InputSource input, UIController ui,
+                    FrameTelemetry telemetry) {
         this.state = state;
         this.render = render;
         this.input = input;
         this.ui = ui;
+        this.telemetry = telemetry;
+        setRenderCap(DEFAULT_RENDER_CAP);
+    }
+
+    /**
+     * Replaces the clock; takes effect on the next {@link #start()}.
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Upper bound on simulation ticks run in one pulse at 1x speed (at least 1).
+     */
+    public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+        this.maxCatchUpTicks = Math.max(1, maxCatchUpTicks);
+    }
+
+    /**
+     * Maximum frames rendered per second, e.g. 30 or 60, or {@link #UNCAPPED}
+     * to render on every pulse. The FX pulse itself follows the display
+     * (start with -Djavafx.animation.fullspeed=true to lift that too).
+     */
+    public void setRenderCap(int fps) {
+        renderIntervalNanos = fps <= 0 ? 0 : 1_000_000_000L / fps;
+        telemetry.setFrameBudgetNanos(fps <= 0 ? FrameTelemetry.PULSE_NANOS
+                                               : Math.max(FrameTelemetry.PULSE_NANOS, renderIntervalNanos));
     }
 
     public void start() {
         if (running) return;
         running = true;
-        timer = new AnimationTimer() {
-            private long last = 0;
-            private double accumulator = 0;
-
-            @Override
-            public void handle(long now) {
-                if (last == 0) last = now;
-                long elapsed = now - last;
-                last = now;
-                accumulator += elapsed;
-
-                // Tick updates at fixed step
-                while (accumulator >= NANOS_PER_TICK) {
-                    tick();
-                    accumulator -= NANOS_PER_TICK;
-                }
-
-                // Render with interpolation (not used heavily here)
-                render.render(state);
-                ui.updateUI(state);
-            }
-        };
-        timer.start();
+        lastSim = Long.MIN_VALUE;
+        accumulator = 0;
+        nextRender = 0;
+        lastRender = 0;
+        pendingTicks = 0;
+        pendingTickNanos = 0;
+        clock.start(this);
     }
 
     public void stop() {
         if (!running) return;
         running = false;
-        if (timer != null) timer.stop();
+        clock.stop();
+    }
+
+    /**
+     * Called by the clock with its current time; runs due ticks, then renders
+     * if a frame is due. The first call only sets the time origin.
+     */
+    public void pulse(long simNow) {
+        if (!running) return;
+        if (lastSim == Long.MIN_VALUE) lastSim = simNow;
+        accumulator += simNow - lastSim;
+        lastSim = simNow;
+
+        // Tick updates at fixed step, within the catch-up budget
+        int budget = (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(maxCatchUpTicks * clock.getSpeed()));
+        int ticksRun = 0;
+        long t0 = System.nanoTime();
+        while (accumulator >= NANOS_PER_TICK && ticksRun < budget) {
+            long start = System.nanoTime();
+            tick();
+            telemetry.recordTick(System.nanoTime() - start);
+            accumulator -= NANOS_PER_TICK;
+            ticksRun++;
+        }
+        if (accumulator >= NANOS_PER_TICK) {
+            // Over budget: drop whole ticks but keep the sub-tick phase
+            long dropped = (long) (accumulator / NANOS_PER_TICK);
+            accumulator -= dropped * NANOS_PER_TICK;
+            telemetry.recordSkippedTicks(dropped);
+        }
+        telemetry.recordPulse(ticksRun);
+        pendingTicks += ticksRun;
+        pendingTickNanos += System.nanoTime() - t0;
+
+        if (render == null) return;
+
+        // Render cap, in wall time: skip this pulse if the next frame isn't due yet
+        long now = System.nanoTime();
+        if (renderIntervalNanos > 0) {
+            if (now < nextRender - RENDER_SLACK_NANOS) return;
+            nextRender += renderIntervalNanos;
+            if (nextRender < now) nextRender = now + renderIntervalNanos; // fell behind, re-phase
+        }
+
+        double alpha = accumulator / NANOS_PER_TICK;
+        long t1 = System.nanoTime();
+        render.render(state, alpha);
+        long t2 = System.nanoTime();
+        if (ui != null) ui.updateUI(state);
+        long t3 = System.nanoTime();
+        telemetry.getInputLatency().onFrameDrawn(t3);
+
+        telemetry.recordFrame(pendingTicks, pendingTickNanos, t2 - t1, t3 - t2,
+                              lastRender == 0 ? 0 : now - lastRender);
+        lastRender = now;
+        pendingTicks = 0;
+        pendingTickNanos = 0;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public FrameTelemetry getTelemetry() {
+        return telemetry;
     }
 
     private void tick() {
-        // Handle input & update state
-        state.update(input);
+        // Sample input once per tick & update state
+        state.update(input.poll());
     }
 }
@@ -1,209 +1,147 @@
 package com.mygame.client;
 
+import com.mygame.engine.Ball;
+import com.mygame.engine.Direction;
+import com.mygame.engine.InputBits;
+import com.mygame.engine.InputFrame;
+import com.mygame.engine.MatchListener;
+import com.mygame.engine.MatchRules;
+import com.mygame.engine.MatchState;
+import com.mygame.engine.Player;
+import com.mygame.replay.InputRecorder;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
- * Holds the state of a local match (players, ball, current shot, turn count)
- * IMPROVEMENT: Simplified input reading by separating direction selection and confirmation.
- * FIX: Added player animation triggers and corrected the ball movement call.
+ * Client-side adapter around the headless {@link MatchState}.
+ * The penalty rules live in the engine; this class only wires the
+ * engine events to the JavaFX UI and the score REST API.
  */
-public class GameState {
+public class GameState implements MatchListener {
 
-    private Player p1, p2;
-    private Ball ball;
+    private final MatchState match = new MatchState();
     private final RenderSystem render;
     private final UIController ui;
-    private final RestClient restClient = new RestClient();
+    private final RestClient restClient;
+    // Read once per tick, so a config reload lands between ticks
+    private Supplier<MatchRules> rules = () -> MatchRules.DEFAULT;
+
+    // Records every tick's input for replays; null when not recording
+    private InputRecorder recorder;
+    // The last replay's close, still being written out; null if none
+    private CompletableFuture<Void> replayClosing;
+    // This tick's input, sampled once so the recording matches what the engine saw
+    private final InputBits tickInput = new InputBits();
 
-    private int currentKickerId = 1;
-    private int round = 0;
-    private boolean awaitingInput = true;
-    private boolean awaitingPowerConfirmation = false; // New state for Striker power choice
+    // Ball position before the last tick, for render interpolation
+    private double prevBallX, prevBallY;
 
     public GameState(RenderSystem render, UIController ui) {
+        this(render, ui, new RestClient());
+    }
+
+    /**
+     * @param restClient where finished matches' scores go, e.g. one with its own spool directory
+     */
+    public GameState(RenderSystem render, UIController ui, RestClient restClient) {
         this.render = render;
         this.ui = ui;
+        this.restClient = restClient;
+        match.setListener(this);
     }
 
     public void initLocalGame(Player p1, Player p2, Ball ball) {
-        this.p1 = p1;
-        this.p2 = p2;
-        this.ball = ball;
-        // Ensure roles are set correctly for the first round
-        p1.setStriker(true);
-        p2.setStriker(false);
-        this.currentKickerId = 1;
-        this.round = 1;
-        this.awaitingInput = true;
-        this.awaitingPowerConfirmation = false;
-        resetBallPosition();
+        match.init(p1, p2, ball);
+        prevBallX = ball.getX();
+        prevBallY = ball.getY();
     }
-    
-    // Helper to reset the ball for the next shot
-    private void resetBallPosition() {
-        // Ensure the ball resets to the striker's starting position (or slightly in front)
-        Player striker = (currentKickerId == 1) ? p1 : p2;
-        ball.setPosition(striker.getX(), striker.getY()); 
-        ball.setMoving(false);
-    }
-
-
-    public void update(InputSystem input) {
-        p1.tick();
-        p2.tick();
-        ball.tick();
 
-        Player striker = (currentKickerId == 1) ? p1 : p2;
-        Player keeper = (currentKickerId == 1) ? p2 : p1;
-
-        if (awaitingInput) {
-            handleStrikerInput(striker, input);
-            handleKeeperInput(keeper, input);
-            
-            // Check for Shot Phase transition
-            if (striker.getChosenDirection() != Direction.NONE && !awaitingPowerConfirmation) {
-                // Striker has chosen direction, now selecting power
-                awaitingPowerConfirmation = true;
-            }
-            
-            // Check for Shot Confirmation
-            if (awaitingPowerConfirmation) {
-                // Determine who is confirming power (Striker's keys)
-                boolean strikerConfirmed = (striker.getPlayerId() == 1 && input.p1Confirm()) ||
-                                           (striker.getPlayerId() == 2 && input.p2Confirm());
-                                           
-                if (strikerConfirmed && keeper.getChosenDirection() != Direction.NONE) {
-                    // Both players have committed, resolve the shot
-                    resolveShot(striker, keeper);
-                    awaitingInput = false;      // Game enters animation phase
-                    awaitingPowerConfirmation = false;
-                }
-            }
+    /**
+     * Source of the match rules, e.g. {@code () -> configWatcher.get().getRules()}.
+     */
+    public void setRules(Supplier<MatchRules> rules) {
+        this.rules = rules;
+    }
 
+    public void update(InputFrame input) {
+        match.setRules(rules.get());
+        Ball ball = match.getBall();
+        prevBallX = ball.getX();
+        prevBallY = ball.getY();
+        if (recorder != null && !match.isOver()) {
+            tickInput.copyOf(input);
+            recorder.record(match, tickInput);
+            match.update(tickInput);
         } else {
-            // Animate ball
-            if (!ball.isMoving()) {
-                // After ball stops, reset for next turn and swap roles
-                currentKickerId = (currentKickerId == 1) ? 2 : 1;
-                p1.setStriker(!p1.isStriker()); // Swap roles
-                p2.setStriker(!p2.isStriker());
-                
-                // Reset states and animations
-                p1.resetTurn();
-                p2.resetTurn();
-                
-                resetBallPosition();
-                
-                awaitingInput = true;
-                round++;
-                if (round > 10) {
-                    // Game Over Logic
-                    ui.showEnd(p1.getScore(), p2.getScore());
-                    
-                    // SOA INTEGRATION: Save scores to Database via REST
-                    // Only save non-zero scores or save both
-                    System.out.println("Uploading scores to REST API...");
-                    restClient.submitScore(p1.getName(), p1.getScore());
-                    restClient.submitScore(p2.getName(), p2.getScore());
-                }
-            }
+            match.update(input);
         }
     }
-    
-    private void handleStrikerInput(Player striker, InputSystem input) {
-        int id = striker.getPlayerId();
-        
-        // 1. Direction Selection Phase
-        if (striker.getChosenDirection() == Direction.NONE) {
-            Direction dir = Direction.NONE;
-            boolean confirmed = false;
-
-            if (id == 1) {
-                if (input.p1Left()) dir = Direction.LEFT;
-                else if (input.p1Right()) dir = Direction.RIGHT;
-                else if (input.p1PowerUp() || input.p1PowerDown()) dir = Direction.CENTER;
-                if (input.p1Confirm()) confirmed = true;
-            } else { // Player 2
-                if (input.p2Left()) dir = Direction.LEFT;
-                else if (input.p2Right()) dir = Direction.RIGHT;
-                else if (input.p2PowerUp() || input.p2PowerDown()) dir = Direction.CENTER;
-                if (input.p2Confirm()) confirmed = true;
-            }
-            
-            // Update temporary selection for visualization
-            if (dir != Direction.NONE) {
-                striker.setDirectionSelection(dir);
-            }
-            
-            // Confirm direction
-            if (confirmed && striker.getDirectionSelection() != Direction.NONE) {
-                striker.setChosenDirection(striker.getDirectionSelection());
-            }
-        }
-        
-        // 2. Power Selection Phase (Implicitly handled by Player.tick() and confirmation check in update())
+
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
     }
 
-    private void handleKeeperInput(Player keeper, InputSystem input) {
-        // Keeper only chooses a direction, and confirms it.
-        if (keeper.getChosenDirection() == Direction.NONE) {
-            Direction dir = Direction.NONE;
-            boolean confirmed = false;
-            
-            int id = keeper.getPlayerId();
-
-            if (id == 1) {
-                if (input.p1Left()) dir = Direction.LEFT;
-                else if (input.p1Right()) dir = Direction.RIGHT;
-                else if (input.p1PowerUp() || input.p1PowerDown()) dir = Direction.CENTER;
-                if (input.p1Confirm()) confirmed = true;
-            } else { // Player 2
-                if (input.p2Left()) dir = Direction.LEFT;
-                else if (input.p2Right()) dir = Direction.RIGHT;
-                else if (input.p2PowerUp() || input.p2PowerDown()) dir = Direction.CENTER;
-                if (input.p2Confirm()) confirmed = true;
-            }
-            
-            // Update temporary selection for visualization
-            if (dir != Direction.NONE) {
-                keeper.setDirectionSelection(dir);
-            }
-            
-            // Confirm direction
-            if (confirmed && keeper.getDirectionSelection() != Direction.NONE) {
-                keeper.setChosenDirection(keeper.getDirectionSelection());
+    /**
+     * Finishes the replay file with the current state's checksum.
+     */
+    public void stopRecording() {
+        if (recorder == null) return;
+        // Written on the recorder's thread; the game thread doesn't wait for the disk
+        replayClosing = recorder.close(match).whenComplete((ok, e) -> {
+            if (e != null) System.err.println("Failed to finish replay: " + e.getMessage());
+        });
+        recorder = null;
+    }
+
+    /**
+     * Finishes the replay and hands unsent scores to the spool; call on exit.
+     */
+    public void close() {
+        stopRecording();
+        if (replayClosing != null) {
+            try {
+                InputRecorder.await(replayClosing, 5, TimeUnit.SECONDS);
+            } catch (IOException e) {
+                System.err.println("Replay not finished before exit: " + e.getMessage());
             }
         }
+        restClient.close();
     }
 
-    private void resolveShot(Player striker, Player keeper) {
-        Direction sDir = striker.getChosenDirection();
-        Direction kDir = keeper.getChosenDirection();
-        double power = striker.getCurrentPower();
-
-        System.out.println(striker.getName() + " shot: " + sDir + " at " + String.format("%.2f", power) + " power | Keeper dived: " + kDir);
-
-        // 1. Trigger Animations
-        striker.startAnimation(Player.ANIM_KICK_START_INDEX, Player.ANIM_KICK_FRAMES);
-        keeper.startAnimation(Player.ANIM_DIVE_START_INDEX, Player.ANIM_DIVE_FRAMES);
-
-        if (sDir != kDir) {
-            // Goal 
-            striker.addScore();
-            System.out.println("GOAL! Score P1: " + p1.getScore() + ", P2: " + p2.getScore());
+    @Override
+    public void onShotResolved(Player striker, Player keeper, Direction shot, Direction dive,
+                               double power, boolean goal) {
+        System.out.println(striker.getName() + " shot: " + shot + " at " + String.format("%.2f", power) + " power | Keeper dived: " + dive);
+        if (goal) {
+            System.out.println("GOAL! Score P1: " + getPlayer1().getScore() + ", P2: " + getPlayer2().getScore());
         } else {
-            // Saved
             System.out.println("Saved by keeper!");
         }
+    }
+
+    @Override
+    public void onMatchOver(Player p1, Player p2) {
+        if (ui != null) ui.showEnd(p1.getScore(), p2.getScore());
+        stopRecording();
 
-        // 2. Start Ball Movement
-        // This uses the improved logic from Ball.java to shoot up the screen (negative Y velocity)
-        ball.shoot(sDir, power);
+        // SOA INTEGRATION: Save scores to Database via REST (spooled, sent in the background)
+        System.out.println("Queueing scores for the REST API...");
+        restClient.submitScore(p1.getName(), p1.getScore());
+        restClient.submitScore(p2.getName(), p2.getScore());
     }
 
     // Getters for RenderSystem/UIController
-    public Player getPlayer1() { return p1; }
-    public Player getPlayer2() { return p2; }
-    public Ball getBall() { return ball; }
-    public boolean isAwaitingPowerConfirmation() { return awaitingPowerConfirmation; }
-    public int getCurrentKickerId() { return currentKickerId; }
-    public int getRound() { return round; }
-}
\ No newline at end of file
+    public MatchState getMatch() { return match; }
+    public Player getPlayer1() { return match.getPlayer1(); }
+    public Player getPlayer2() { return match.getPlayer2(); }
+    public Ball getBall() { return match.getBall(); }
+    public boolean isAwaitingPowerConfirmation() { return match.isAwaitingPowerConfirmation(); }
+    public int getCurrentKickerId() { return match.getCurrentKickerId(); }
+    public int getRound() { return match.getRound(); }
+    public MatchRules getRules() { return match.getRules(); }
+    public double getPrevBallX() { return prevBallX; }
+    public double getPrevBallY() { return prevBallY; }
+}
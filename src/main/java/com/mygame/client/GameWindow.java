@@ -1,17 +1,30 @@
 package com.mygame.client;
 
+import com.mygame.config.ConfigWatcher;
+import com.mygame.engine.Ball;
+import com.mygame.engine.Pitch;
+import com.mygame.engine.Player;
 import com.mygame.jms.JmsMatchClient;
+import com.mygame.replay.InputRecorder;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 public class GameWindow extends Application {
 
-    public static final int WIDTH = 1280;
-    public static final int HEIGHT = 720;
+    public static final int WIDTH = Pitch.WIDTH;
+    public static final int HEIGHT = Pitch.HEIGHT;
 
     private Canvas canvas;
     private GameLoop gameLoop;
@@ -25,41 +38,108 @@ public class GameWindow extends Application {
         GraphicsContext gc = canvas.getGraphicsContext2D();
 
         // --- JMS INITIALIZATION ---
-        // Connects to ActiveMQ immediately on startup
+        // Connects to ActiveMQ in the background; the window does not wait for the broker
         jmsClient = new JmsMatchClient();
-        
-        // Example usage: Send a request immediately (or hook this up to UI buttons)
-        jmsClient.sendCreateMatchRequest("PlayerOne"); 
+
+        // Example usage: queued until the connection is up (or hook this up to UI buttons)
+        jmsClient.sendCreateMatchRequest("PlayerOne");
         // --------------------------
 
         RenderSystem render = new RenderSystem(gc);
         InputSystem input = new InputSystem();
         UIController ui = new UIController();
         GameState state = new GameState(render, ui);
+        // -Dgame.config=path watches that file and retunes the running game on save
+        ConfigWatcher config = ConfigWatcher.fromSystemProperties();
+        state.setRules(() -> config.get().getRules());
+        FrameTelemetry telemetry = new FrameTelemetry();
+        ui.setTelemetry(telemetry);
+        input.setLatency(telemetry.getInputLatency());
 
-        StackPane root = new StackPane(canvas, ui.getRoot());
+        StackPane root = new StackPane(canvas, ui.getRoot(), ui.getOverlay());
         Scene scene = new Scene(root, WIDTH, HEIGHT);
         input.attach(scene);
 
+
         Player p1 = new Player("Player 1", 1, true);
         Player p2 = new Player("Player 2", 2, false);
         Ball ball = new Ball(WIDTH / 2.0, HEIGHT - 140);
 
         state.initLocalGame(p1, p2, ball);
+        startRecording(state, p1, p2);
 
-        gameLoop = new GameLoop(state, render, input, ui);
-        gameLoop.start();
+        gameLoop = new GameLoop(state, render, input, ui, telemetry);
+        // e.g. -Dgame.renderCap=30 on shared kiosks, 0 for uncapped
+        gameLoop.setRenderCap(Integer.getInteger("game.renderCap", GameLoop.DEFAULT_RENDER_CAP));
+        gameLoop.setMaxCatchUpTicks(Integer.getInteger("game.maxCatchUpTicks", GameLoop.DEFAULT_MAX_CATCH_UP_TICKS));
+        FxClock clock = new FxClock();
+        gameLoop.setClock(clock);
+
+        // Diagnostics hotkeys: F3 toggles the telemetry overlay, F4 resets it.
+        // With -Dgame.debugClock=true also F5 pauses, F6 steps one tick while
+        // paused and F7 cycles 1x/2x/4x/8x speed; off by default so players can't
+        // slow the keeper down mid-match
+        boolean debugClock = Boolean.getBoolean("game.debugClock");
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            switch (e.getCode()) {
+                case F3: ui.toggleOverlay(); break;
+                case F4: telemetry.reset(); break;
+                case F5: if (debugClock) clock.setPaused(!clock.isPaused()); break;
+                case F6: if (debugClock) clock.step(); break;
+                case F7: if (debugClock) clock.setSpeed(clock.getSpeed() >= 8 ? 1 : clock.getSpeed() * 2); break;
+                default: break;
+            }
+        });
 
         stage.setTitle("Penalty Pixel Game (JMS Enabled)");
         stage.setScene(scene);
         stage.setResizable(false);
         stage.show();
 
+        // Sprites decode on background threads behind a loading screen;
+        // the game starts once they are packed
+        ui.showLoading();
+        new AssetLoader().loadAsync(ui::setLoadingProgress).whenComplete((assets, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Asset loading failed, drawing placeholders: " + error);
+            } else {
+                render.setAssets(assets);
+                System.out.printf("Assets loaded in %.0f ms (cache: %d hit, %d miss)%n",
+                        assets.getLoadNanos() / 1e6, assets.getCacheHits(), assets.getCacheMisses());
+            }
+            ui.showLanding();
+            gameLoop.start();
+            long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            System.out.println("Time to interactive: " + sinceJvmStart + " ms");
+        }));
+
+        // Key releases are not delivered while unfocused; don't leave keys stuck down
+        stage.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused) input.releaseAll();
+        });
+
         stage.setOnCloseRequest(e -> {
             gameLoop.stop();
+            telemetry.print(System.out);
+            state.close();
             // Close JMS connection cleanly
             if (jmsClient != null) jmsClient.close();
             System.exit(0);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Records the match input under -Dgame.replayDir (default "replays") so it
+     * can be replayed with com.mygame.replay.MatchReplayer; "none" disables it.
+     */
+    private static void startRecording(GameState state, Player p1, Player p2) {
+        String dir = System.getProperty("game.replayDir", "replays");
+        if (dir.equals("none")) return;
+        String name = "match-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".ppr";
+        try {
+            state.setRecorder(InputRecorder.open(Paths.get(dir, name), p1.getName(), p2.getName()));
+        } catch (IOException e) {
+            System.err.println("Replay recording disabled: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mygame.client;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Printable ASCII pre-rendered in one font and colour, so HUD text is drawn
+ * as 1:1 glyph copies instead of going through the text layout every frame.
+ * Drawing ASCII never allocates: text is read through {@link CharSequence#charAt}
+ * and numbers are drawn digit by digit. Other characters (accented names,
+ * emoji) are not in the atlas; runs of them are drawn with
+ * {@link GraphicsContext#fillText} in the same font and colour.
+ */
+public class GlyphAtlas {
+
+    private static final char FIRST = ' ';
+    private static final char LAST = '~';
+    private static final int PAD = 2; // room for anti-aliased edges
+
+    private final Font font;
+    private final Color color;
+    private final Text probe; // measures fallback text
+    private final WritableImage image;
+    private final double[] advance = new double[LAST - FIRST + 1];
+    private final double cellW;
+    private final double cellH;
+    private final double ascent;
+
+    /**
+     * Renders the glyphs; uses a snapshot, so call it on the FX thread.
+     */
+    public GlyphAtlas(Font font, Color color) {
+        this.font = font;
+        this.color = color;
+        probe = new Text();
+        probe.setFont(font);
+        double widest = 0;
+        for (char c = FIRST; c <= LAST; c++) {
+            probe.setText(String.valueOf(c));
+            advance[c - FIRST] = probe.getLayoutBounds().getWidth();
+            widest = Math.max(widest, advance[c - FIRST]);
+        }
+        probe.setText("Hg");
+        ascent = Math.ceil(probe.getBaselineOffset());
+        cellH = Math.ceil(probe.getLayoutBounds().getHeight()) + PAD;
+        cellW = Math.ceil(widest) + 2 * PAD;
+
+        Canvas canvas = new Canvas(cellW * advance.length, cellH);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.setFont(font);
+        g.setFill(color);
+        for (char c = FIRST; c <= LAST; c++) {
+            g.fillText(String.valueOf(c), (c - FIRST) * cellW + PAD, ascent);
+        }
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        image = canvas.snapshot(params, null);
+    }
+
+    /**
+     * Draws text with its baseline at y, like {@link GraphicsContext#fillText}.
+     * @return the x position right after the text
+     */
+    public double drawText(GraphicsContext gc, CharSequence text, double x, double y) {
+        int n = text.length();
+        for (int i = 0; i < n; ) {
+            if (inAtlas(text.charAt(i))) {
+                x = drawChar(gc, text.charAt(i++), x, y);
+                continue;
+            }
+            int end = i + 1;
+            while (end < n && !inAtlas(text.charAt(end))) end++;
+            x = fillText(gc, text.subSequence(i, end).toString(), x, y);
+            i = end;
+        }
+        return x;
+    }
+
+    /**
+     * Draws a non-negative number without building a String.
+     * @return the x position right after the number
+     */
+    public double drawInt(GraphicsContext gc, int value, double x, double y) {
+        if (value < 0) {
+            x = drawChar(gc, '-', x, y);
+            value = -value;
+        }
+        int div = 1;
+        while (value / div >= 10) div *= 10;
+        for (; div > 0; div /= 10) {
+            x = drawChar(gc, (char) ('0' + (value / div) % 10), x, y);
+        }
+        return x;
+    }
+
+    private static boolean inAtlas(char c) {
+        return c >= FIRST && c <= LAST;
+    }
+
+    // Only for characters in the atlas
+    private double drawChar(GraphicsContext gc, char c, double x, double y) {
+        int i = c - FIRST;
+        if (c != ' ') {
+            double dx = Math.round(x) - PAD, dy = Math.round(y) - ascent;
+            gc.drawImage(image, i * cellW, 0, cellW, cellH, dx, dy, cellW, cellH);
+        }
+        return x + advance[i];
+    }
+
+    // A run of characters the atlas lacks, through the text layout
+    private double fillText(GraphicsContext gc, String run, double x, double y) {
+        gc.save();
+        gc.setFont(font);
+        gc.setFill(color);
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.BASELINE);
+        gc.fillText(run, x, y);
+        gc.restore();
+        return x + measure(run);
+    }
+
+    private double measure(String run) {
+        probe.setText(run);
+        return probe.getLayoutBounds().getWidth();
+    }
+
+    public double width(CharSequence text) {
+        double w = 0;
+        int n = text.length();
+        for (int i = 0; i < n; ) {
+            if (inAtlas(text.charAt(i))) {
+                w += advance[text.charAt(i++) - FIRST];
+                continue;
+            }
+            int end = i + 1;
+            while (end < n && !inAtlas(text.charAt(end))) end++;
+            w += measure(text.subSequence(i, end).toString());
+            i = end;
+        }
+        return w;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mygame.client;
+
+import com.mygame.engine.InputBits;
+
+/**
+ * Input-to-photon latency per action type: from the key event's timestamp,
+ * through the tick that consumed it, to the end of the first frame rendered
+ * after that tick. The frame is presented at the end of the same pulse, so
+ * the real photon time is later by at most one display refresh.
+ *
+ * Fed by {@link InputSystem#poll()} and {@link GameLoop}; both run on the
+ * game loop thread. Histograms can be read from anywhere.
+ */
+public class InputLatency {
+
+    public static final String[] ACTION_NAMES = {"left", "right", "up", "down", "confirm"};
+    private static final int ACTIONS = ACTION_NAMES.length;
+
+    private final LatencyHistogram[] toTick = new LatencyHistogram[ACTIONS];
+    private final LatencyHistogram[] toFrame = new LatencyHistogram[ACTIONS];
+
+    // Earliest consumed-but-not-yet-drawn key event per action, 0 if none
+    private final long[] pendingEvent = new long[ACTIONS];
+    private final long[] pendingTick = new long[ACTIONS];
+    private boolean anyPending = false;
+
+    public InputLatency() {
+        for (int i = 0; i < ACTIONS; i++) {
+            toTick[i] = new LatencyHistogram();
+            toFrame[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * A key press timestamped eventNanos was handed to the tick starting at tickNanos.
+     * @param actionIndex bit position of the InputBits action (0 = left .. 4 = confirm)
+     */
+    public void onConsumed(int actionIndex, long eventNanos, long tickNanos) {
+        toTick[actionIndex].record(tickNanos - eventNanos);
+        if (pendingEvent[actionIndex] == 0) {
+            pendingEvent[actionIndex] = eventNanos;
+            pendingTick[actionIndex] = tickNanos;
+            anyPending = true;
+        }
+    }
+
+    /**
+     * A frame showing every tick run so far has been drawn.
+     */
+    public void onFrameDrawn(long frameNanos) {
+        if (!anyPending) return;
+        for (int i = 0; i < ACTIONS; i++) {
+            if (pendingEvent[i] == 0) continue;
+            long latency = frameNanos - pendingEvent[i];
+            toFrame[i].record(latency);
+
+            InputLatencyEvent event = new InputLatencyEvent();
+            if (event.shouldCommit()) {
+                event.action = ACTION_NAMES[i];
+                event.toTickNanos = pendingTick[i] - pendingEvent[i];
+                event.toFrameNanos = latency;
+                event.commit();
+            }
+            pendingEvent[i] = 0;
+        }
+        anyPending = false;
+    }
+
+    /**
+     * @param action one InputBits flag, e.g. {@link InputBits#CONFIRM}
+     */
+    public LatencyHistogram getToFrame(int action) {
+        return toFrame[Integer.numberOfTrailingZeros(action)];
+    }
+
+    public LatencyHistogram getToTick(int action) {
+        return toTick[Integer.numberOfTrailingZeros(action)];
+    }
+
+    public void reset() {
+        for (int i = 0; i < ACTIONS; i++) {
+            toTick[i].reset();
+            toFrame[i].reset();
+        }
+    }
+
+    void appendSummary(StringBuilder sb) {
+        sb.append("input->frame  n    p50     p99     max (ms)\n");
+        for (int i = 0; i < ACTIONS; i++) {
+            LatencyHistogram h = toFrame[i];
+            if (h.getCount() == 0) continue;
+            sb.append(String.format("%-8s %6d %7.2f %7.2f %7.2f%n", ACTION_NAMES[i], h.getCount(),
+                    h.percentile(50) / 1e6, h.percentile(99) / 1e6, h.getMax() / 1e6));
+        }
+    }
+}
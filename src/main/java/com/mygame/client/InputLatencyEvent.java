@@ -0,0 +1,31 @@
+package com.mygame.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One key press from event to first drawn frame, for Flight Recorder.
+ */
+@Name("com.mygame.InputLatency")
+@Label("Input Latency")
+@Category({"Penalty Game", "Game Loop"})
+@Description("Time from a key press to the tick that consumed it and to the first frame drawn after it")
+@StackTrace(false)
+public class InputLatencyEvent extends Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("To Tick")
+    @Timespan(Timespan.NANOSECONDS)
+    public long toTickNanos;
+
+    @Label("To Frame")
+    @Timespan(Timespan.NANOSECONDS)
+    public long toFrameNanos;
+}
@@ -0,0 +1,54 @@
+package com.mygame.client;
+
+import com.mygame.engine.InputBits;
+import com.mygame.engine.InputFrame;
+
+/**
+ * Immutable input for one tick: which actions were held at the tick, plus
+ * those pressed since the previous tick even if already released again, so a
+ * quick tap between two ticks still counts. Bits are laid out per controller,
+ * 5 action bits each ({@link InputBits} order).
+ */
+public final class InputSnapshot implements InputFrame {
+
+    public static final InputSnapshot EMPTY = new InputSnapshot(0, 0);
+
+    private final long held;
+    private final long pressed;
+
+    public InputSnapshot(long held, long pressed) {
+        this.held = held;
+        this.pressed = pressed;
+    }
+
+    /**
+     * Actions of one controller (held or pressed this tick) as InputBits flags.
+     */
+    public int bits(int controller) {
+        return (int) ((held | pressed) >>> shift(controller)) & InputBits.MASK;
+    }
+
+    /**
+     * Actions that went down since the previous tick.
+     */
+    public int pressedBits(int controller) {
+        return (int) (pressed >>> shift(controller)) & InputBits.MASK;
+    }
+
+    public boolean isDown(int controller, int action) {
+        return (bits(controller) & action) != 0;
+    }
+
+    public long getHeld() { return held; }
+    public long getPressed() { return pressed; }
+
+    private static int shift(int controller) {
+        return (controller - 1) * KeyBindings.ACTIONS;
+    }
+
+    @Override public boolean left(int playerId) { return isDown(playerId, InputBits.LEFT); }
+    @Override public boolean right(int playerId) { return isDown(playerId, InputBits.RIGHT); }
+    @Override public boolean powerUp(int playerId) { return isDown(playerId, InputBits.POWER_UP); }
+    @Override public boolean powerDown(int playerId) { return isDown(playerId, InputBits.POWER_DOWN); }
+    @Override public boolean confirm(int playerId) { return isDown(playerId, InputBits.CONFIRM); }
+}
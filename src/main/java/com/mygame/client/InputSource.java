@@ -0,0 +1,14 @@
+package com.mygame.client;
+
+import com.mygame.engine.InputFrame;
+
+/**
+ * Supplies the input for each simulation tick. {@link GameLoop} calls
+ * {@link #poll} exactly once per tick; bots and tests can simply return a
+ * fixed or scripted frame.
+ */
+@FunctionalInterface
+public interface InputSource {
+
+    InputFrame poll();
+}
@@ -2,38 +2,142 @@ package com.mygame.client;
 
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Handles keyboard input for two local players.
+ * Keyboard input for up to {@link KeyBindings#MAX_CONTROLLERS} local controllers.
+ * Default keys (see {@link KeyBindings#defaults()}):
  * Player 1 keys: A (left), D (right), W (power up), S (power down), SPACE (confirm)
  * Player 2 keys: LEFT, RIGHT, UP, DOWN, ENTER
+ *
+ * Key handlers set bits in a held-keys bitset and append timestamped edge
+ * events to a single-producer / single-consumer ring. Once per tick
+ * {@link #poll()} drains the ring into an immutable {@link InputSnapshot}, so
+ * a press and release between two ticks is still seen by the simulation.
+ * Neither side locks or does hash lookups. Edge timestamps also feed
+ * {@link InputLatency} when one is attached.
  */
-public class InputSystem {
+public class InputSystem implements InputSource {
 
-    private final Set<KeyCode> pressed = new HashSet<>();
+    private static final int RING_SIZE = 256; // power of two
+    private static final int DOWN = 1 << 8;
+    private static final int BIT_MASK = DOWN - 1;
+
+    private final KeyBindings bindings;
+    private final AtomicLong held = new AtomicLong();
+
+    // Edge ring: written by the key handlers, drained by poll()
+    private final long[] edgeTime = new long[RING_SIZE];
+    private final int[] edgeBit = new int[RING_SIZE];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long droppedEdges = 0;
+
+    private InputSnapshot last = InputSnapshot.EMPTY;
+    private InputLatency latency;
+
+    public InputSystem() {
+        this(KeyBindings.defaults());
+    }
+
+    public InputSystem(KeyBindings bindings) {
+        this.bindings = bindings;
+    }
 
     public void attach(Scene scene) {
-        scene.setOnKeyPressed(e -> pressed.add(e.getCode()));
-        scene.setOnKeyReleased(e -> pressed.remove(e.getCode()));
+        scene.addEventHandler(KeyEvent.KEY_PRESSED, e -> keyDown(e.getCode(), System.nanoTime()));
+        scene.addEventHandler(KeyEvent.KEY_RELEASED, e -> keyUp(e.getCode(), System.nanoTime()));
+    }
+
+    public void setLatency(InputLatency latency) {
+        this.latency = latency;
+    }
+
+    public KeyBindings getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Records a key going down at the given time (System.nanoTime()).
+     * Auto-repeat presses of a key already held are ignored.
+     */
+    public void keyDown(KeyCode code, long nanos) {
+        int bit = bindings.lookup(code);
+        if (bit < 0) return;
+        long mask = 1L << bit;
+        long h;
+        do {
+            h = held.get();
+            if ((h & mask) != 0) return;
+        } while (!held.compareAndSet(h, h | mask));
+        pushEdge(bit | DOWN, nanos);
+    }
+
+    public void keyUp(KeyCode code, long nanos) {
+        int bit = bindings.lookup(code);
+        if (bit < 0) return;
+        long mask = 1L << bit;
+        long h;
+        do {
+            h = held.get();
+            if ((h & mask) == 0) return;
+        } while (!held.compareAndSet(h, h & ~mask));
+        pushEdge(bit, nanos);
     }
 
-    public boolean isPressed(KeyCode k) {
-        return pressed.contains(k);
+    /**
+     * Forgets all held keys, e.g. when the window loses focus and the
+     * matching key releases will never arrive.
+     */
+    public void releaseAll() {
+        held.set(0);
     }
 
-    // Convenience methods:
-    public boolean p1Left() { return isPressed(KeyCode.A); }
-    public boolean p1Right() { return isPressed(KeyCode.D); }
-    public boolean p1PowerUp() { return isPressed(KeyCode.W); }
-    public boolean p1PowerDown() { return isPressed(KeyCode.S); }
-    public boolean p1Confirm() { return isPressed(KeyCode.SPACE); }
+    private void pushEdge(int event, long nanos) {
+        long h = head.get();
+        if (h - tail.get() >= RING_SIZE) {
+            // Consumer stalled; the held bitset is still exact, only the tap latch is lost
+            droppedEdges++;
+            return;
+        }
+        int i = (int) h & (RING_SIZE - 1);
+        edgeTime[i] = nanos;
+        edgeBit[i] = event;
+        head.lazySet(h + 1); // publishes the slot to the consumer
+    }
+
+    /**
+     * Input for the next tick. Call once per tick from one thread.
+     * Allocates only when the input changed since the previous tick.
+     */
+    @Override
+    public InputSnapshot poll() {
+        long h = head.get();
+        long pressed = 0;
+        long now = (latency != null) ? System.nanoTime() : 0;
+        for (long t = tail.get(); t < h; t++) {
+            int i = (int) t & (RING_SIZE - 1);
+            int e = edgeBit[i];
+            if ((e & DOWN) == 0) continue;
+            int bit = e & BIT_MASK;
+            pressed |= 1L << bit;
+            if (latency != null) latency.onConsumed(bit % KeyBindings.ACTIONS, edgeTime[i], now);
+        }
+        tail.lazySet(h);
 
-    public boolean p2Left() { return isPressed(KeyCode.LEFT); }
-    public boolean p2Right() { return isPressed(KeyCode.RIGHT); }
-    public boolean p2PowerUp() { return isPressed(KeyCode.UP); }
-    public boolean p2PowerDown() { return isPressed(KeyCode.DOWN); }
-    public boolean p2Confirm() { return isPressed(KeyCode.ENTER); }
+        long heldNow = held.get();
+        if (pressed != 0 || last.getPressed() != 0 || last.getHeld() != heldNow) {
+            last = new InputSnapshot(heldNow, pressed);
+        }
+        return last;
+    }
+
+    /**
+     * Key edges lost because the ring was full (no tick ran for 256 edges).
+     */
+    public long getDroppedEdges() {
+        return droppedEdges;
+    }
 }
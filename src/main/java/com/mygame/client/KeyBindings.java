@@ -0,0 +1,94 @@
+package com.mygame.client;
+
+import com.mygame.engine.InputBits;
+import javafx.scene.input.KeyCode;
+
+import java.util.Arrays;
+
+/**
+ * Maps keys to (controller, action) pairs. Actions are the {@link InputBits}
+ * flags; controllers are numbered from 1 and controllers 1 and 2 play the match.
+ * Lookups are one array read indexed by the key's ordinal.
+ * Change bindings on the FX thread (where key events are handled).
+ */
+public class KeyBindings {
+
+    public static final int MAX_CONTROLLERS = 8;
+    static final int ACTIONS = Integer.bitCount(InputBits.MASK);
+
+    // Bit index into the held bitset per KeyCode, -1 when unbound
+    private final int[] byKey = new int[KeyCode.values().length];
+
+    public KeyBindings() {
+        Arrays.fill(byKey, -1);
+    }
+
+    /**
+     * Player 1: A, D, W, S, SPACE. Player 2: arrow keys and ENTER.
+     */
+    public static KeyBindings defaults() {
+        KeyBindings b = new KeyBindings();
+        b.bind(KeyCode.A, 1, InputBits.LEFT);
+        b.bind(KeyCode.D, 1, InputBits.RIGHT);
+        b.bind(KeyCode.W, 1, InputBits.POWER_UP);
+        b.bind(KeyCode.S, 1, InputBits.POWER_DOWN);
+        b.bind(KeyCode.SPACE, 1, InputBits.CONFIRM);
+
+        b.bind(KeyCode.LEFT, 2, InputBits.LEFT);
+        b.bind(KeyCode.RIGHT, 2, InputBits.RIGHT);
+        b.bind(KeyCode.UP, 2, InputBits.POWER_UP);
+        b.bind(KeyCode.DOWN, 2, InputBits.POWER_DOWN);
+        b.bind(KeyCode.ENTER, 2, InputBits.CONFIRM);
+        return b;
+    }
+
+    /**
+     * Binds a key to one action of a controller, replacing its previous binding.
+     * @param action one of the InputBits flags, e.g. {@link InputBits#CONFIRM}
+     */
+    public void bind(KeyCode key, int controller, int action) {
+        if (controller < 1 || controller > MAX_CONTROLLERS) {
+            throw new IllegalArgumentException("controller must be 1.." + MAX_CONTROLLERS + ": " + controller);
+        }
+        if (Integer.bitCount(action) != 1 || (action & ~InputBits.MASK) != 0) {
+            throw new IllegalArgumentException("Not a single action bit: " + action);
+        }
+        byKey[key.ordinal()] = bitIndex(controller, action);
+    }
+
+    public void unbind(KeyCode key) {
+        byKey[key.ordinal()] = -1;
+    }
+
+    /**
+     * Removes every key bound to the controller.
+     */
+    public void unbindController(int controller) {
+        for (int i = 0; i < byKey.length; i++) {
+            if (byKey[i] >= 0 && byKey[i] / ACTIONS == controller - 1) byKey[i] = -1;
+        }
+    }
+
+    /**
+     * @return the key bound to that action, or null
+     */
+    public KeyCode keyFor(int controller, int action) {
+        int bit = bitIndex(controller, action);
+        KeyCode[] codes = KeyCode.values();
+        for (int i = 0; i < byKey.length; i++) {
+            if (byKey[i] == bit) return codes[i];
+        }
+        return null;
+    }
+
+    /**
+     * Position of the key's action in an input bitset, or -1 if unbound.
+     */
+    int lookup(KeyCode key) {
+        return byKey[key.ordinal()];
+    }
+
+    static int bitIndex(int controller, int action) {
+        return (controller - 1) * ACTIONS + Integer.numberOfTrailingZeros(action);
+    }
+}
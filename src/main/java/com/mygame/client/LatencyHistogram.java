@@ -0,0 +1,79 @@
+package com.mygame.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of nanosecond durations.
+ *
+ * Values below 32 ns are exact; above that each power of two is split into
+ * 32 buckets, so any reported percentile is within ~3% of the real value.
+ * Recording is one atomic increment and never allocates, so it is safe to
+ * call from the game loop and from input handlers at the same time.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_BITS = 40; // ~18 minutes in nanos, plenty for a frame
+    private static final int BUCKETS = (MAX_BITS - SUB_BITS + 1) * SUB + SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(index(nanos));
+        total.incrementAndGet();
+        long m;
+        while (nanos > (m = max.get())) {
+            if (max.compareAndSet(m, nanos)) break;
+        }
+    }
+
+    static int index(long v) {
+        v = Math.min(v, (1L << MAX_BITS) - 1);
+        int msb = 63 - Long.numberOfLeadingZeros(v | 1);
+        if (msb < SUB_BITS) return (int) v;
+        int shift = msb - SUB_BITS;
+        int sub = (int) (v >>> shift) & (SUB - 1);
+        return (shift + 1) * SUB + sub;
+    }
+
+    // Largest value that lands in bucket i
+    static long upperBound(int i) {
+        if (i < SUB) return i;
+        int shift = i / SUB - 1;
+        long sub = i % SUB;
+        return ((SUB + sub + 1) << shift) - 1;
+    }
+
+    /**
+     * @param p percentile in [0, 100]
+     * @return the value at that percentile in nanos (bucket upper bound), 0 if empty
+     */
+    public long percentile(double p) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public long getCount() { return total.get(); }
+    public long getMax() { return max.get(); }
+
+    /**
+     * Clears all counts. Records racing with a reset may survive it.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        max.set(0);
+    }
+}
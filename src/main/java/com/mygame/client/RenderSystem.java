@@ -1,5 +1,9 @@
 package com.mygame.client;
 
+import com.mygame.engine.Ball;
+import com.mygame.engine.Direction;
+import com.mygame.engine.Player;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.image.WritableImage;
@@ -7,22 +11,33 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
-import java.io.InputStream;
-
 public class RenderSystem {
 
     private final GraphicsContext gc;
 
     private Image fieldBackground;
-    private Image ballSheet;
+    // Static pitch (field, goal area, crossbar) rendered once
+    private WritableImage backgroundLayer;
 
-    private Image strikerSheet;
-    private Image keeperSheet;
-    
-    // Arrays of sliced frames
-    private Image[] strikerFrames;
-    private Image[] keeperFrames;
-    private Image[] ballFrames;
+    // Dynamic items, in drawing order
+    private static final int SLOT_P1 = 0, SLOT_P2 = 1, SLOT_P1_INDICATOR = 2, SLOT_P2_INDICATOR = 3,
+                             SLOT_BALL = 4, SLOT_SCORES = 5, SLOT_STATUS = 6, SLOT_COUNT = 7;
+    private final DirtyRegions regions = new DirtyRegions(SLOT_COUNT);
+
+    // Ball position for this frame, interpolated between ticks
+    private double ballX, ballY;
+
+    // HUD text: one pre-rendered glyph set per font size and colour, built on first render
+    private static final int HUD_FONT_SIZE = 20, INDICATOR_FONT_SIZE = 24, STATUS_FONT_SIZE = 28;
+    private GlyphAtlas hudWhite;
+    private GlyphAtlas indicatorYellow, indicatorCyan;
+    private GlyphAtlas statusYellow, statusGreen, statusCyan, statusOrange, statusWhite;
+
+    // All striker, keeper and ball frames, pre-scaled to their on-screen size
+    private SpriteAtlas atlas;
+    private SpriteAtlas.Strip strikerFrames = SpriteAtlas.Strip.EMPTY;
+    private SpriteAtlas.Strip keeperFrames = SpriteAtlas.Strip.EMPTY;
+    private SpriteAtlas.Strip ballFrames = SpriteAtlas.Strip.EMPTY;
 
     // Assumed frame dimensions 
     public static final int FRAME_W = 88; 
@@ -31,166 +46,246 @@ public class RenderSystem {
     public static final int BALL_FRAME_W = 352;
     public static final int BALL_FRAME_H = 768;
 
+    // Players are drawn at 2x, the ball at Ball.BALL_SIZE
+    public static final int PLAYER_DRAW_W = FRAME_W * 2;
+    public static final int PLAYER_DRAW_H = FRAME_H * 2;
+
 
+    /**
+     * Draws placeholder shapes until {@link #setAssets} supplies the sprites.
+     */
     public RenderSystem(GraphicsContext gc) {
         this.gc = gc;
-        loadSprites();
     }
 
-    // --- 1. SPRITE LOADING AND SLICING ---
-
-    private void loadSprites() {
-        try {
-            // Load all sprite sheets
-            InputStream isField = getClass().getResourceAsStream("/Field.png");
-            InputStream isBall = getClass().getResourceAsStream("/Ball-no-Background.png");
-            InputStream isStriker = getClass().getResourceAsStream("/striker_sheet-removebg-preview.png"); 
-            InputStream isKeeper = getClass().getResourceAsStream("/keeper_sheet-removebg-preview.png"); 
-
-            fieldBackground = (isField != null) ? new Image(isField) : null;
-            ballSheet = (isBall != null) ? new Image(isBall) : null;
-            strikerSheet = (isStriker != null) ? new Image(isStriker) : null;
-            keeperSheet = (isKeeper != null) ? new Image(isKeeper) : null;
-
-            // Slice the Player sheets (32x48)
-            strikerFrames = slice(strikerSheet, FRAME_W, FRAME_H);
-            keeperFrames = slice(keeperSheet, FRAME_W, FRAME_H);
-            
-            // Slice the Ball sheet (32x32)
-            ballFrames = slice(ballSheet, BALL_FRAME_W, BALL_FRAME_H);
-
-        } catch (Exception e) {
-            System.err.println("Error loading or slicing sprites: " + e.getMessage());
-            e.printStackTrace();
-            // Ensure arrays are initialized to empty arrays on failure, not null
-            strikerFrames = new Image[0]; 
-            keeperFrames = new Image[0];
-            ballFrames = new Image[0];
-        }
-    }
+    // --- 1. SPRITES (loaded and packed by AssetLoader) ---
 
     /**
-     * Slices a sprite sheet into individual Image frames.
+     * Switches to loaded sprites and field image; the next frame redraws
+     * everything. Call on the FX thread.
      */
-    private Image[] slice(Image sheet, int frameW, int frameH) {
-        if (sheet == null) return new Image[0];
-        
-        int sheetWidth = (int) sheet.getWidth();
-        int sheetHeight = (int) sheet.getHeight();
-        
-        // Calculate the number of columns and rows
-        int cols = sheetWidth / frameW;
-        int rows = sheetHeight / frameH;
-        
-        Image[] frames = new Image[cols * rows];
-        int i = 0;
-        
-        for (int y = 0; y < rows; y++) {
-             for (int x = 0; x < cols; x++) {
-                 // Create a WritableImage by copying a section of the original sheet
-                 WritableImage writableImage = new WritableImage(sheet.getPixelReader(), 
-                                                                 x * frameW, y * frameH, 
-                                                                 frameW, frameH);
-                 frames[i++] = writableImage;
-             }
-        }
-        return frames;
+    public void setAssets(AssetLoader.Assets assets) {
+        fieldBackground = assets.getField();
+        atlas = assets.getAtlas();
+        strikerFrames = atlas.strip("striker");
+        keeperFrames = atlas.strip("keeper");
+        ballFrames = atlas.strip("ball");
+        backgroundLayer = null; // repaint with the field image
+        regions.invalidate();
     }
 
     // --- 2. MAIN RENDERING LOOP ---
-    
+
+    /**
+     * Draws one frame. The static pitch comes from a cached layer; only the
+     * items that changed since the last frame are erased (by copying the
+     * pitch back over them) and redrawn. A frame where nothing changed
+     * does not touch the canvas at all.
+     */
     public void render(GameState state) {
-        renderBackground();
+        render(state, 1.0);
+    }
+
+    /**
+     * @param alpha how far the loop is between the last tick and the next one
+     *              (0..1); a moving ball is drawn that far along its last step
+     */
+    public void render(GameState state, double alpha) {
+        ensureBackgroundLayer();
+        ensureGlyphs();
 
         // Determine players and their roles
         Player p1 = state.getPlayer1();
         Player p2 = state.getPlayer2();
-        
-        // Use the correct frame array based on the player's role (striker or keeper)
-        if (p1 != null) {
-            Image[] frames = p1.isStriker() ? strikerFrames : keeperFrames;
-            drawPlayer(p1, frames);
+        Ball ball = state.getBall();
+        if (ball != null) {
+            // Interpolate only in flight: after a reset the ball jumps and must not smear
+            if (ball.isMoving()) {
+                ballX = state.getPrevBallX() + (ball.getX() - state.getPrevBallX()) * alpha;
+                ballY = state.getPrevBallY() + (ball.getY() - state.getPrevBallY()) * alpha;
+            } else {
+                ballX = ball.getX();
+                ballY = ball.getY();
+            }
         }
-        
-        if (p2 != null) {
-            Image[] frames = p2.isStriker() ? strikerFrames : keeperFrames;
-            drawPlayer(p2, frames);
+
+        // 1. Work out where everything goes this frame
+        trackPlayer(SLOT_P1, p1);
+        trackPlayer(SLOT_P2, p2);
+        // Input indicators only while the players are choosing
+        boolean choosing = ball != null && !ball.isMoving();
+        trackIndicator(SLOT_P1_INDICATOR, p1, choosing);
+        trackIndicator(SLOT_P2_INDICATOR, p2, choosing);
+        trackBall(ball);
+        trackHud(state);
+
+        if (!regions.resolve()) {
+            regions.commit();
+            return;
         }
-        
-        // Draw input indicators (MUST be drawn over players)
-        if (state.getBall().isMoving() == false) {
-             drawInputIndicators(state);
+
+        // 2. Erase what changed
+        if (regions.isInvalidated()) {
+            gc.drawImage(backgroundLayer, 0, 0);
+        } else {
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                if (regions.needsErase(slot)) {
+                    restoreBackground(regions.getOldX(slot), regions.getOldY(slot),
+                                      regions.getOldW(slot), regions.getOldH(slot));
+                }
+            }
         }
 
-        // Draw ball (Pass the ball frames array)
-        Ball ball = state.getBall();
-        if (ball != null) {
-            drawBall(ball, ballFrames);
+        // 3. Redraw it, back to front (indicators over players, HUD last)
+        if (redraw(SLOT_P1)) drawPlayer(p1, p1.isStriker() ? strikerFrames : keeperFrames);
+        if (redraw(SLOT_P2)) drawPlayer(p2, p2.isStriker() ? strikerFrames : keeperFrames);
+        if (redraw(SLOT_P1_INDICATOR)) drawInputIndicator(p1);
+        if (redraw(SLOT_P2_INDICATOR)) drawInputIndicator(p2);
+        if (redraw(SLOT_BALL)) drawBall(ball, ballFrames);
+        if (redraw(SLOT_SCORES)) drawScores(state);
+        if (redraw(SLOT_STATUS)) drawStatus(state);
+
+        regions.commit();
+    }
+
+    private boolean redraw(int slot) {
+        return regions.isDirty(slot) && regions.isDrawn(slot);
+    }
+
+    // Bounds below are generous boxes around what the draw methods paint;
+    // signatures combine everything else that changes their pixels.
+
+    private void trackPlayer(int slot, Player p) {
+        if (p == null) {
+            regions.hide(slot);
+            return;
         }
-        
-        // Draw scores / HUD (Last, so it's on top)
-        drawHud(state);
+        long sig = p.getAnimationIndex() * 4L
+                + (p.isStriker() ? 2 : 0)
+                + (p.getChosenDirection() != Direction.NONE ? 1 : 0);
+        regions.set(slot, Math.floor(p.getX() - PLAYER_DRAW_W / 2.0) - 5, Math.floor(p.getY() - PLAYER_DRAW_H) - 5,
+                    PLAYER_DRAW_W + 10, PLAYER_DRAW_H + 10, sig);
+    }
+
+    private void trackIndicator(int slot, Player p, boolean choosing) {
+        if (p == null || !choosing || p.getChosenDirection() != Direction.NONE
+                || p.getDirectionSelection() == Direction.NONE) {
+            regions.hide(slot);
+            return;
+        }
+        long sig = p.getDirectionSelection().ordinal() * 2L + (p.isStriker() ? 1 : 0);
+        regions.set(slot, Math.floor(p.getX()) - 48, Math.floor(p.getY()) - 130, 210, 44, sig);
+    }
+
+    private void trackBall(Ball ball) {
+        if (ball == null) {
+            regions.hide(SLOT_BALL);
+            return;
+        }
+        regions.set(SLOT_BALL, Math.floor(ballX) - 60, Math.floor(ballY) - 56,
+                    122, 128, ball.getAnimIndex());
+    }
+
+    private void trackHud(GameState state) {
+        Player p1 = state.getPlayer1();
+        Player p2 = state.getPlayer2();
+        long scores = (p1.getScore() * 64L + p2.getScore()) * 64L + state.getRound();
+        regions.set(SLOT_SCORES, 0, 0, GameWindow.WIDTH, 42, scores);
+        regions.set(SLOT_STATUS, 0, 48, GameWindow.WIDTH, 48, statusIndex(state) * 4L + state.getCurrentKickerId());
+    }
+
+    private void restoreBackground(double x, double y, double w, double h) {
+        double x0 = Math.max(0, x), y0 = Math.max(0, y);
+        double x1 = Math.min(GameWindow.WIDTH, x + w), y1 = Math.min(GameWindow.HEIGHT, y + h);
+        if (x1 <= x0 || y1 <= y0) return;
+        gc.drawImage(backgroundLayer, x0, y0, x1 - x0, y1 - y0, x0, y0, x1 - x0, y1 - y0);
     }
 
 
     // --- 3. DRAWING HELPER METHODS ---
 
+    /**
+     * Paints the whole static pitch and makes the next frame redraw every item.
+     */
     public void renderBackground() {
+        ensureBackgroundLayer();
+        gc.drawImage(backgroundLayer, 0, 0);
+        regions.invalidate();
+    }
+
+    /**
+     * Renders the pitch once into an off-screen image; every later frame copies from it.
+     * Must run on the FX thread (snapshot), which render() always does.
+     */
+    private void ensureBackgroundLayer() {
+        if (backgroundLayer != null) return;
+        Canvas layer = new Canvas(GameWindow.WIDTH, GameWindow.HEIGHT);
+        paintPitch(layer.getGraphicsContext2D());
+        backgroundLayer = layer.snapshot(null, new WritableImage(GameWindow.WIDTH, GameWindow.HEIGHT));
+        regions.invalidate();
+    }
+
+    private void ensureGlyphs() {
+        if (hudWhite != null) return;
+        Font hud = Font.font("Arial", FontWeight.BOLD, HUD_FONT_SIZE);
+        Font indicator = Font.font("Arial", FontWeight.BOLD, INDICATOR_FONT_SIZE);
+        Font status = Font.font("Arial", FontWeight.BOLD, STATUS_FONT_SIZE);
+        hudWhite = new GlyphAtlas(hud, Color.WHITE);
+        indicatorYellow = new GlyphAtlas(indicator, Color.YELLOW);
+        indicatorCyan = new GlyphAtlas(indicator, Color.CYAN);
+        statusYellow = new GlyphAtlas(status, Color.YELLOW);
+        statusGreen = new GlyphAtlas(status, Color.LIGHTGREEN);
+        statusCyan = new GlyphAtlas(status, Color.CYAN);
+        statusOrange = new GlyphAtlas(status, Color.ORANGE);
+        statusWhite = new GlyphAtlas(status, Color.WHITE);
+    }
+
+    private void paintPitch(GraphicsContext g) {
         // Use the Field.png background if loaded
         if (fieldBackground != null) {
             // Scale and draw the background to fit the window
-            gc.drawImage(fieldBackground, 0, 0, GameWindow.WIDTH, GameWindow.HEIGHT);
+            g.drawImage(fieldBackground, 0, 0, GameWindow.WIDTH, GameWindow.HEIGHT);
         } else {
-            // Fallback: draw simple green field (your existing code)
-            gc.setFill(Color.web("#2a7a2a"));
-            gc.fillRect(0, 0, GameWindow.WIDTH, GameWindow.HEIGHT);
+            // Fallback: draw simple green field
+            g.setFill(Color.web("#2a7a2a"));
+            g.fillRect(0, 0, GameWindow.WIDTH, GameWindow.HEIGHT);
         }
         
         // Draw pitch lines (Goal area and posts)
-        gc.setStroke(Color.WHITE);
-        gc.setLineWidth(2);
+        g.setStroke(Color.WHITE);
+        g.setLineWidth(2);
         // Goal area
-        gc.strokeRect(GameWindow.WIDTH / 2 - 220, GameWindow.HEIGHT - 420, 440, 300);
+        g.strokeRect(GameWindow.WIDTH / 2 - 220, GameWindow.HEIGHT - 420, 440, 300);
         // Goal post outline (simplified)
-        gc.setFill(Color.LIGHTGRAY);
-        gc.fillRect(GameWindow.WIDTH / 2 - 100, 100, 200, 10);
+        g.setFill(Color.LIGHTGRAY);
+        g.fillRect(GameWindow.WIDTH / 2 - 100, 100, 200, 10);
     }
     
-    private void drawPlayer(Player p, Image[] frames) {
-        
-        // 1. Declare the frame variable first, initializing it to null
-        Image frame = null; 
-
-        // 2. Safely calculate the index
+    private void drawPlayer(Player p, SpriteAtlas.Strip frames) {
         int index = p.getAnimationIndex();
         
-        // 3. Assign the frame using an if statement (Handles frames == null or empty array)
-        if (frames != null && frames.length > 0 && index >= 0 && index < frames.length) {
-            frame = frames[index];
-        }
-        
         double x = p.getX();
         double y = p.getY();
         
-        // Calculate scaled dimensions (2x size)
-        final double DRAW_W = FRAME_W * 2; // 64
-        final double DRAW_H = FRAME_H * 2; // 96
+        // Frames are already stored at 2x size
+        final double DRAW_W = PLAYER_DRAW_W;
+        final double DRAW_H = PLAYER_DRAW_H;
         
         // Calculate centered draw position
         final double DRAW_X = x - (DRAW_W / 2); 
         final double DRAW_Y = y - DRAW_H;
         
         // Draw player sprite/placeholder
-        if (frame != null) {
-            // Draw the frame using the calculated centered coordinates and scaled size
-            gc.drawImage(frame, DRAW_X, DRAW_Y, DRAW_W, DRAW_H); 
+        if (frames.has(index)) {
+            // Straight 1:1 copy out of the atlas
+            frames.draw(gc, index, DRAW_X, DRAW_Y);
         } else {
             // Fallback placeholder rectangle (32x96 centered)
             gc.setFill(p.isStriker() ? Color.DARKBLUE : Color.RED);
             gc.fillRect(x - 16, y - 96, 32, 96); 
         }
         
-        // Draw selection highlight (adjusted for 36x100 box around the 64x96 sprite)
+        // Draw selection highlight around the sprite
         if (p.getChosenDirection() != Direction.NONE) {
             gc.setStroke(Color.YELLOW);
             gc.setLineWidth(3);
@@ -198,27 +293,17 @@ public class RenderSystem {
         }
     }
     
-    private void drawBall(Ball ball, Image[] frames) {
-        
-        // 1. Declare the frame variable first
-        Image frame = null;
-
-        // 2. Safely calculate the index and assign the frame
+    private void drawBall(Ball ball, SpriteAtlas.Strip frames) {
         int index = ball.getAnimIndex();
         
-        if (frames.length > 0 && index >= 0 && index < frames.length) {
-            frame = frames[index];
-        }
-        
-        if (frame != null) {
-            gc.drawImage(frame, 
-                        ball.getX() - Ball.BALL_SIZE / 1.8, 
-                        ball.getY() - Ball.BALL_SIZE / 3,
-                        Ball.BALL_SIZE, Ball.BALL_SIZE);
+        if (frames.has(index)) {
+            frames.draw(gc, index,
+                        ballX - Ball.BALL_SIZE / 1.8,
+                        ballY - Ball.BALL_SIZE / 3);
         } else {
             // Placeholder circle for the ball
             gc.setFill(Color.RED);
-            gc.fillOval(ball.getX() - Ball.BALL_SIZE / 2, ball.getY() - Ball.BALL_SIZE / 2, Ball.BALL_SIZE, Ball.BALL_SIZE);
+            gc.fillOval(ballX - Ball.BALL_SIZE / 2, ballY - Ball.BALL_SIZE / 2, Ball.BALL_SIZE, Ball.BALL_SIZE);
         }
     }
     
@@ -228,25 +313,18 @@ public class RenderSystem {
      * but the logic should be used on the player designated as the keeper.
      */
     public void drawKeeperFrame(int i, int j, Player keeper) {
-        // 1. Calculate Source Coordinates (Top-left corner of the desired frame on the sheet)
-        double sourceX = j * FRAME_W; 
-        double sourceY = i * FRAME_H;
+        // 1. Frame index in the keeper strip (sheet is 8 frames wide)
+        int index = i * 8 + j;
 
-        // 2. Define Drawn Dimensions (These should match the scaling used in drawPlayer)
-        final double DRAW_W = FRAME_W * 2; // 64
-        final double DRAW_H = FRAME_H * 2; // 96
-        
-        // 3. Define Destination Coordinates (Centered on keeper's position)
+        // 2. Define Destination Coordinates (Centered on keeper's position)
         double x = keeper.getX();
         double y = keeper.getY();
-        final double DRAW_X = x - (DRAW_W / 2); // Center X
-        final double DRAW_Y = y - DRAW_H;      // Place feet at Y
-
-        // 4. Draw the specific section of the sheet
-        if (keeperSheet != null) {
-            gc.drawImage(keeperSheet, 
-                         sourceX, sourceY, FRAME_W, FRAME_H, // Source rectangle (unscaled)
-                         DRAW_X, DRAW_Y, DRAW_W, DRAW_H);    // Destination rectangle (2x scaled)
+        final double DRAW_X = x - (PLAYER_DRAW_W / 2.0); // Center X
+        final double DRAW_Y = y - PLAYER_DRAW_H;        // Place feet at Y
+
+        // 3. Copy the pre-scaled frame
+        if (keeperFrames.has(index)) {
+            keeperFrames.draw(gc, index, DRAW_X, DRAW_Y);
         } else {
             // Fallback placeholder rectangle 
             gc.setFill(Color.RED);
@@ -256,33 +334,12 @@ public class RenderSystem {
     
     // --- 4. HUD AND INDICATOR METHODS ---
     
-    // Inside RenderSystem.java
-
-    private void drawInputIndicators(GameState state) {
-        Player striker = (state.getCurrentKickerId() == 1) ? state.getPlayer1() : state.getPlayer2();
-        Player keeper = (state.getCurrentKickerId() == 1) ? state.getPlayer2() : state.getPlayer1();
-        
-        // 1. Striker Direction Indicator (While selecting)
-        if (striker.getChosenDirection() == Direction.NONE && striker.getDirectionSelection() != Direction.NONE) {
-            drawDirectionIndicator(striker, Color.YELLOW, striker.getDirectionSelection());
-        }
-        
-        // 2. Keeper Direction Indicator (While selecting)
-        if (keeper.getChosenDirection() == Direction.NONE && keeper.getDirectionSelection() != Direction.NONE) {
-            drawDirectionIndicator(keeper, Color.CYAN, keeper.getDirectionSelection());
-        }
-        
-        // 3. Striker Power Bar (DELETE THIS BLOCK)
-        /* if (state.isAwaitingPowerConfirmation()) {
-            drawPowerBar(striker);
-        }
-        */ 
+    private void drawInputIndicator(Player p) {
+        // Striker highlights in yellow, keeper in cyan (only while selecting)
+        drawDirectionIndicator(p, p.isStriker() ? indicatorYellow : indicatorCyan, p.getDirectionSelection());
     }
 
-    private void drawDirectionIndicator(Player p, Color color, Direction dir) {
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 24));
-        gc.setFill(color);
-        
+    private void drawDirectionIndicator(Player p, GlyphAtlas glyphs, Direction dir) {
         String text = switch (dir) {
             case LEFT -> "<< LEFT";
             case CENTER -> "CENTER >>";
@@ -294,49 +351,62 @@ public class RenderSystem {
         double y = p.getY();
         
         // Place indicator above player
-        gc.fillText(text, x - text.length() * 4, y - 100);
+        glyphs.drawText(gc, text, x - text.length() * 4, y - 100);
     }
 
-    private void drawHud(GameState state) {
+    private void drawScores(GameState state) {
         Player p1 = state.getPlayer1();
         Player p2 = state.getPlayer2();
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 20));
 
         // Scores
-        gc.setFill(Color.WHITE);
-        gc.fillText(p1.getName() + " Score: " + p1.getScore(), 20, 30);
-        gc.fillText(p2.getName() + " Score: " + p2.getScore(), GameWindow.WIDTH - 200, 30);
+        double x = hudWhite.drawText(gc, p1.getName(), 20, 30);
+        x = hudWhite.drawText(gc, " Score: ", x, 30);
+        hudWhite.drawInt(gc, p1.getScore(), x, 30);
+
+        x = hudWhite.drawText(gc, p2.getName(), GameWindow.WIDTH - 200, 30);
+        x = hudWhite.drawText(gc, " Score: ", x, 30);
+        hudWhite.drawInt(gc, p2.getScore(), x, 30);
         
         // Round Info
-        gc.fillText("Round: " + state.getRound() + " / 10", GameWindow.WIDTH / 2 - 50, 30);
+        x = hudWhite.drawText(gc, "Round: ", GameWindow.WIDTH / 2 - 50, 30);
+        x = hudWhite.drawInt(gc, state.getRound(), x, 30);
+        x = hudWhite.drawText(gc, " / ", x, 30);
+        hudWhite.drawInt(gc, state.getRules().getMaxRounds(), x, 30);
+    }
 
-        // Game Status
-        String statusText = "";
-        Color statusColor = Color.WHITE;
-        
-        if (state.getBall().isMoving()) {
-            statusText = "SHOT IN PROGRESS...";
-            statusColor = Color.YELLOW;
-        } else {
-            Player striker = (state.getCurrentKickerId() == 1) ? p1 : p2;
-            Player keeper = (state.getCurrentKickerId() == 1) ? p2 : p1;
-            
-            if (striker.getChosenDirection() == Direction.NONE) {
-                statusText = "STRIKER (" + striker.getName() + "): Choose Direction!";
-                statusColor = Color.LIGHTGREEN;
-            } else if (keeper.getChosenDirection() == Direction.NONE) {
-                statusText = "KEEPER (" + keeper.getName() + "): Choose Dive Direction!";
-                statusColor = Color.CYAN;
-            } else if (state.isAwaitingPowerConfirmation()) {
-                statusText = "STRIKER (" + striker.getName() + "): Confirm Power!";
-                statusColor = Color.ORANGE;
-            } else {
-                statusText = "Awaiting Shot Resolution...";
-            }
+    // Game status values, in the order they are checked
+    private static final int STATUS_SHOT = 0, STATUS_STRIKER_DIRECTION = 1, STATUS_KEEPER_DIRECTION = 2,
+                             STATUS_CONFIRM_POWER = 3, STATUS_RESOLVING = 4;
+
+    private int statusIndex(GameState state) {
+        if (state.getBall().isMoving()) return STATUS_SHOT;
+        Player striker = (state.getCurrentKickerId() == 1) ? state.getPlayer1() : state.getPlayer2();
+        Player keeper = (state.getCurrentKickerId() == 1) ? state.getPlayer2() : state.getPlayer1();
+        if (striker.getChosenDirection() == Direction.NONE) return STATUS_STRIKER_DIRECTION;
+        if (keeper.getChosenDirection() == Direction.NONE) return STATUS_KEEPER_DIRECTION;
+        if (state.isAwaitingPowerConfirmation()) return STATUS_CONFIRM_POWER;
+        return STATUS_RESOLVING;
+    }
+
+    private void drawStatus(GameState state) {
+        Player striker = (state.getCurrentKickerId() == 1) ? state.getPlayer1() : state.getPlayer2();
+        Player keeper = (state.getCurrentKickerId() == 1) ? state.getPlayer2() : state.getPlayer1();
+
+        // Status line is "<prefix><name><suffix>" or a fixed message
+        final double x = GameWindow.WIDTH / 2.0 - STATUS_FONT_SIZE * 4;
+        final double y = 80;
+        switch (statusIndex(state)) {
+            case STATUS_SHOT -> statusYellow.drawText(gc, "SHOT IN PROGRESS...", x, y);
+            case STATUS_STRIKER_DIRECTION -> drawNamed(statusGreen, "STRIKER (", striker, "): Choose Direction!", x, y);
+            case STATUS_KEEPER_DIRECTION -> drawNamed(statusCyan, "KEEPER (", keeper, "): Choose Dive Direction!", x, y);
+            case STATUS_CONFIRM_POWER -> drawNamed(statusOrange, "STRIKER (", striker, "): Confirm Power!", x, y);
+            default -> statusWhite.drawText(gc, "Awaiting Shot Resolution...", x, y);
         }
-        
-        gc.setFill(statusColor);
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 28));
-        gc.fillText(statusText, GameWindow.WIDTH / 2.0 - gc.getFont().getSize() * 4, 80);
     }
-}
\ No newline at end of file
+
+    private void drawNamed(GlyphAtlas glyphs, String prefix, Player p, String suffix, double x, double y) {
+        x = glyphs.drawText(gc, prefix, x, y);
+        x = glyphs.drawText(gc, p.getName(), x, y);
+        glyphs.drawText(gc, suffix, x, y);
+    }
+}
@@ -1,42 +1,297 @@
 package com.mygame.client;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Delivers match results to the score REST API without ever losing one to
+ * a flaky network.
+ *
+ * {@link #submitScore} only queues: the result is appended to a durable
+ * {@link ScoreSpool} (-Dgame.scoreSpool, default ~/.penalty-pixel/spool) by a
+ * background thread, which also sends everything spooled in batches of up
+ * to {@value #MAX_BATCH} per request and retries with exponential backoff.
+ * Results spooled before a crash or restart go out on the next start.
+ * Each result carries a random submission id so the server can recognise
+ * one that is delivered twice.
+ */
 public class RestClient {
 
     private static final String API_URL = "http://localhost:8080/api/scores";
+    private static final String BATCH_URL = API_URL + "/batch";
+
+    private static final int MAX_BATCH = 500;
+    // Results of the same moment (both players of a match) share a request
+    private static final long LINGER_MS = 500;
+    private static final long MIN_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final long CLOSE_TIMEOUT_MS = 2000;
+
     private final HttpClient client;
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Owned by the executor thread
+    private ScoreSpool spool;                             // null if the spool directory is unusable
+    private final Deque<String> unspooled = new ArrayDeque<>(); // used instead of the spool then
+    private long backoffMs = MIN_BACKOFF_MS;
+    private boolean drainScheduled = false;
+    private boolean batchSupported = true;
+
+    private volatile int pending = 0;
+    private volatile boolean closed = false;
 
     public RestClient() {
+        this(Paths.get(System.getProperty("game.scoreSpool",
+                Paths.get(System.getProperty("user.home"), ".penalty-pixel", "spool").toString())));
+    }
+
+    public RestClient(Path spoolDir) {
         this.client = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_2)
                 .connectTimeout(Duration.ofSeconds(5))
                 .build();
+        executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "score-sender");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false); // retries wait for the next start
+        executor.execute(() -> openSpool(spoolDir));
     }
 
-    // Fire and forget (Async)
+    // === Public API (any thread, never blocks) ===
+
+    /**
+     * Queues one result for delivery.
+     */
     public void submitScore(String playerName, int goals) {
-        // Construct JSON manually to avoid Jackson dependency in Client
-        String json = String.format("{\"playerName\":\"%s\", \"goals\":%d}", playerName, goals);
+        if (closed) return;
+        String json = "{\"submissionId\":\"" + UUID.randomUUID()
+                + "\",\"playerName\":\"" + escape(playerName)
+                + "\",\"goals\":" + goals
+                + ",\"playedAt\":\"" + LocalDateTime.now() + "\"}";
+        executor.execute(() -> append(json));
+    }
+
+    /**
+     * Results not yet confirmed by the server.
+     */
+    public int getPendingCount() {
+        return pending;
+    }
+
+    /**
+     * Waits briefly for queued results to reach the spool, then stops; the
+     * rest are sent on the next start.
+     */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        executor.execute(this::closeSpool);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow(); // abandons an in-flight request; its batch stays spooled
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // === Spool (executor thread) ===
+
+    private void openSpool(Path dir) {
+        try {
+            spool = ScoreSpool.open(dir);
+            updatePending();
+            if (pending > 0) {
+                System.out.println("[Scores] " + pending + " result(s) from an earlier session waiting to be sent");
+                scheduleDrain(0);
+            }
+        } catch (IOException e) {
+            System.err.println("[Scores] Spool " + dir + " unavailable (" + e.getMessage()
+                    + "), results are kept in memory only");
+        }
+    }
+
+    private void append(String json) {
+        try {
+            if (spool != null) {
+                spool.append(json);
+            } else {
+                unspooled.addLast(json);
+            }
+        } catch (IOException e) {
+            System.err.println("[Scores] Could not spool result, keeping it in memory: " + e.getMessage());
+            unspooled.addLast(json);
+        }
+        updatePending();
+        scheduleDrain(LINGER_MS);
+    }
+
+    private void closeSpool() {
+        try {
+            if (spool != null) spool.close();
+        } catch (IOException ignored) {
+            // appends were already forced to disk
+        }
+    }
 
+    // === Sending (executor thread) ===
+
+    private void scheduleDrain(long delayMs) {
+        if (closed || drainScheduled) return;
+        drainScheduled = true;
+        executor.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        drainScheduled = false;
+        if (closed) return;
+        try {
+            List<String> batch = peek();
+            if (batch.isEmpty()) return;
+            int sent = batchSupported ? sendBatch(batch) : sendEach(batch);
+            ack(sent);
+            if (sent < batch.size()) {
+                retryLater();
+                return;
+            }
+            backoffMs = MIN_BACKOFF_MS;
+            System.out.println("[Scores] Sent " + sent + " result(s)");
+            if (pending > 0) scheduleDrain(0);
+        } catch (IOException e) {
+            System.err.println("[Scores] Spool error: " + e.getMessage());
+            retryLater();
+        }
+    }
+
+    private void retryLater() {
+        // Full jitter so kiosks that lost the network together don't return in step
+        long delay = ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1);
+        backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+        scheduleDrain(delay);
+    }
+
+    /**
+     * @return how many results from the start of the batch were dealt with
+     */
+    private int sendBatch(List<String> batch) {
+        int status = post(BATCH_URL, "[" + String.join(",", batch) + "]");
+        if (status / 100 == 2) return batch.size();
+        if (status == 404 || status == 405) {
+            // Older server without the batch endpoint
+            System.out.println("[Scores] Server has no batch endpoint, sending results one by one");
+            batchSupported = false;
+            return sendEach(batch);
+        }
+        if (status == 400) {
+            // Something in the batch is rejected; find out which one on its own
+            return sendEach(batch);
+        }
+        if (status > 0) System.err.println("[Scores] Batch rejected with HTTP " + status + ", will retry");
+        return 0;
+    }
+
+    /**
+     * @return how many results from the start of the list were dealt with
+     */
+    private int sendEach(List<String> batch) {
+        int done = 0;
+        for (String json : batch) {
+            int status = post(API_URL, json);
+            if (status / 100 == 2) {
+                done++;
+            } else if (status >= 400 && status < 500 && status != 408 && status != 429) {
+                // Will never be accepted; don't let it block the ones behind it
+                System.err.println("[Scores] Dropping result rejected with HTTP " + status + ": " + json);
+                done++;
+            } else {
+                break;
+            }
+        }
+        return done;
+    }
+
+    /**
+     * @return the HTTP status, or -1 if the server could not be reached
+     */
+    private int post(String url, String json) {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_URL))
+                .uri(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(json))
                 .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            System.err.println("[Scores] Failed to reach score server (" + e.getMessage() + "), will retry");
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // closing
+            return -1;
+        }
+    }
 
-        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenAccept(response -> System.out.println("Score Saved: " + response))
-                .exceptionally(e -> {
-                    System.err.println("Failed to save score: " + e.getMessage());
-                    return null;
-                });
-    }
-    
-    // In a real full impl, you would also add methods to GET the leaderboard
-}
\ No newline at end of file
+    private List<String> peek() throws IOException {
+        if (!unspooled.isEmpty()) {
+            List<String> batch = new ArrayList<>(Math.min(MAX_BATCH, unspooled.size()));
+            for (String json : unspooled) {
+                if (batch.size() == MAX_BATCH) break;
+                batch.add(json);
+            }
+            return batch;
+        }
+        return spool != null ? spool.peek(MAX_BATCH) : List.of();
+    }
+
+    private void ack(int count) throws IOException {
+        if (count == 0) return;
+        if (!unspooled.isEmpty()) {
+            for (int i = 0; i < count; i++) unspooled.pollFirst();
+        } else {
+            spool.ack(count);
+        }
+        updatePending();
+    }
+
+    private void updatePending() {
+        pending = (spool != null ? spool.size() : 0) + unspooled.size();
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,229 @@
+package com.mygame.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durable outbound queue of score records, one JSON object per line.
+ *
+ * Records are appended to {@code scores.spool} and forced to disk before
+ * {@link #append} returns. The offset of the first record not yet delivered
+ * lives in {@code scores.ack}, replaced atomically after each delivered
+ * batch; once everything is delivered both files are reset to empty. A
+ * crash loses at most a half-written last line (dropped on open) and at
+ * worst delivers the last batch twice. The spool file is locked while
+ * open, so game windows running side by side never share one.
+ *
+ * Not thread-safe: used only by the {@link RestClient} sender thread.
+ */
+public class ScoreSpool implements AutoCloseable {
+
+    private static final String SPOOL_FILE = "scores.spool";
+    private static final String ACK_FILE = "scores.ack";
+    private static final int READ_CHUNK = 64 * 1024;
+    // Spools for game windows running at the same time
+    private static final int MAX_SLOTS = 16;
+
+    // Spool directories open in this JVM
+    private static final Set<Path> HELD = ConcurrentHashMap.newKeySet();
+
+    private final Path dir;
+    private final Path ackFile;
+    private final FileChannel channel;
+    private long head;       // offset of the first undelivered record
+    // End offset of each record returned by the last peek
+    private long[] peekEnds = new long[0];
+    private int peekCount;
+    private int pending;     // undelivered records
+
+    private ScoreSpool(Path dir, FileChannel channel, long head) throws IOException {
+        this.dir = dir;
+        this.ackFile = dir.resolve(ACK_FILE);
+        this.channel = channel;
+        this.head = head;
+        this.pending = countLines(head);
+    }
+
+    /**
+     * Opens the spool in {@code dir}, locked for this process. If another
+     * game window holds it, the first free slot directory under it
+     * ({@code slot-1}, {@code slot-2}, ...) is used instead; a later session
+     * that gets the same slot sends whatever was left there.
+     * @throws IOException if every slot is in use or the files can't be opened
+     */
+    public static ScoreSpool open(Path dir) throws IOException {
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            ScoreSpool spool = tryOpen(slot == 0 ? dir : dir.resolve("slot-" + slot));
+            if (spool != null) return spool;
+        }
+        throw new IOException("all " + MAX_SLOTS + " spools are in use by other game windows");
+    }
+
+    // Null if another process (or another client in this one) holds the spool
+    private static ScoreSpool tryOpen(Path dir) throws IOException {
+        Path key = dir.toAbsolutePath().normalize();
+        // Checked before opening: closing a second channel on the file would
+        // drop this JVM's lock on it
+        if (!HELD.add(key)) return null;
+        FileChannel ch = null;
+        try {
+            Files.createDirectories(dir);
+            ch = FileChannel.open(dir.resolve(SPOOL_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock lock = ch.tryLock();
+            if (lock == null) {
+                ch.close();
+                HELD.remove(key);
+                return null;
+            }
+            // Held until the channel is closed
+            ch.truncate(lastCompleteLineEnd(ch)); // drop a line torn by a crash
+            long head = 0;
+            Path ack = dir.resolve(ACK_FILE);
+            if (Files.exists(ack)) {
+                ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(ack));
+                if (buf.remaining() == Long.BYTES) head = buf.getLong();
+            }
+            // The spool may have been reset just before a crash, with the old offset still on disk
+            head = Math.max(0, Math.min(head, ch.size()));
+            return new ScoreSpool(key, ch, head);
+        } catch (IOException | RuntimeException e) {
+            if (ch != null) ch.close();
+            HELD.remove(key);
+            throw e;
+        }
+    }
+
+    /**
+     * Appends one record (a single line of JSON) and forces it to disk.
+     */
+    public void append(String json) throws IOException {
+        if (json.indexOf('\n') >= 0) throw new IllegalArgumentException("Record must be one line");
+        ByteBuffer buf = ByteBuffer.wrap((json + "\n").getBytes(StandardCharsets.UTF_8));
+        long pos = channel.size();
+        while (buf.hasRemaining()) pos += channel.write(buf, pos);
+        channel.force(true);
+        pending++;
+    }
+
+    /**
+     * Returns up to {@code max} of the oldest undelivered records, without
+     * removing them; see {@link #ack}.
+     */
+    public List<String> peek(int max) throws IOException {
+        List<String> records = new ArrayList<>(Math.min(max, pending));
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        ByteBuffer buf = ByteBuffer.allocate(READ_CHUNK);
+        long pos = head;
+        long size = channel.size();
+        if (peekEnds.length < max) peekEnds = new long[max];
+        peekCount = 0;
+        while (records.size() < max && pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n && records.size() < max; i++) {
+                byte b = buf.get(i);
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                records.add(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+                peekEnds[peekCount++] = pos + i + 1;
+            }
+            pos += n;
+        }
+        return records;
+    }
+
+    /**
+     * Marks the first {@code count} records returned by the last {@link #peek}
+     * as delivered.
+     */
+    public void ack(int count) throws IOException {
+        if (count <= 0) return;
+        if (count > peekCount) throw new IllegalArgumentException("Only " + peekCount + " records were peeked");
+        pending -= count;
+        head = peekEnds[count - 1];
+        peekCount = 0;
+        if (head >= channel.size()) {
+            // Everything delivered: start the files over
+            channel.truncate(0);
+            channel.force(true);
+            head = 0;
+            pending = 0;
+        }
+        writeAck(head);
+    }
+
+    public int size() {
+        return pending;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close(); // releases the lock
+        } finally {
+            HELD.remove(dir);
+        }
+    }
+
+    private void writeAck(long offset) throws IOException {
+        Path tmp = ackFile.resolveSibling(ACK_FILE + ".tmp");
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES).putLong(offset);
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, ackFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, ackFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private int countLines(long from) throws IOException {
+        long to = channel.size();
+        int lines = 0;
+        ByteBuffer buf = ByteBuffer.allocate(READ_CHUNK);
+        for (long pos = from; pos < to; ) {
+            buf.clear();
+            buf.limit((int) Math.min(READ_CHUNK, to - pos));
+            int n = channel.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') lines++;
+            }
+            pos += n;
+        }
+        return lines;
+    }
+
+    private static long lastCompleteLineEnd(FileChannel ch) throws IOException {
+        long size = ch.size();
+        ByteBuffer one = ByteBuffer.allocate(1);
+        for (long pos = size - 1; pos >= 0; pos--) {
+            one.clear();
+            ch.read(one, pos);
+            if (one.get(0) == '\n') return pos + 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,244 @@
+package com.mygame.client;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All sprite frames packed into one texture, already scaled to the size
+ * they are drawn at. Drawing a frame is a 1:1 copy out of the atlas.
+ *
+ * Scaling happens once while building: whole-number enlargements use nearest
+ * neighbour (keeps the pixel-art edges), reductions average every source pixel
+ * that falls into a target pixel (a one-step mip reduction).
+ * Slicing and scaling ({@link Frames#slice}) and building do not need the FX
+ * thread, so assets can be prepared in the background (see {@link AssetLoader}).
+ */
+public class SpriteAtlas {
+
+    private static final int MAX_WIDTH = 2048;
+
+    private final WritableImage image;
+    private final Map<String, Strip> strips;
+
+    private SpriteAtlas(WritableImage image, Map<String, Strip> strips) {
+        this.image = image;
+        this.strips = strips;
+    }
+
+    /**
+     * @return the named strip, or an empty one if its sheet failed to load
+     */
+    public Strip strip(String name) {
+        Strip s = strips.get(name);
+        return s != null ? s : Strip.EMPTY;
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * The frames of one sprite sheet, in sheet order (row by row).
+     */
+    public static final class Strip {
+        static final Strip EMPTY = new Strip(null, new int[0], new int[0], 0, 0);
+
+        private final Image atlas;
+        private final int[] xs, ys;
+        private final int width, height;
+
+        Strip(Image atlas, int[] xs, int[] ys, int width, int height) {
+            this.atlas = atlas;
+            this.xs = xs;
+            this.ys = ys;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int size() { return xs.length; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+
+        public boolean has(int index) {
+            return index >= 0 && index < xs.length;
+        }
+
+        /**
+         * Copies a frame to the canvas with its top-left corner at (x, y),
+         * snapped to whole pixels so no resampling happens.
+         */
+        public void draw(GraphicsContext gc, int index, double x, double y) {
+            gc.drawImage(atlas, xs[index], ys[index], width, height,
+                         Math.round(x), Math.round(y), width, height);
+        }
+    }
+
+    /**
+     * The frames of one sheet already scaled to their drawn size:
+     * {@code count} images of {@code width x height} premultiplied ARGB pixels,
+     * stored one after another. The buffer may be a memory-mapped cache file.
+     */
+    public static final class Frames {
+        private final int count, width, height;
+        private final IntBuffer pixels;
+
+        public Frames(int count, int width, int height, IntBuffer pixels) {
+            if (pixels.remaining() < (long) count * width * height) {
+                throw new IllegalArgumentException("Pixel buffer too small for " + count + " frames");
+            }
+            this.count = count;
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+        }
+
+        /**
+         * Cuts every {@code frameW x frameH} cell of a sheet (row by row) and
+         * scales it to {@code drawW x drawH}.
+         * @return the frames, or null for a missing or broken sheet
+         */
+        public static Frames slice(Image sheet, int frameW, int frameH, int drawW, int drawH) {
+            if (sheet == null || sheet.isError()) return null;
+            int cols = (int) sheet.getWidth() / frameW;
+            int count = cols * ((int) sheet.getHeight() / frameH);
+            PixelReader in = sheet.getPixelReader();
+            int[] src = new int[frameW * frameH];
+            int[] dst = new int[count * drawW * drawH];
+            for (int i = 0; i < count; i++) {
+                in.getPixels((i % cols) * frameW, (i / cols) * frameH, frameW, frameH,
+                             PixelFormat.getIntArgbPreInstance(), src, 0, frameW);
+                scale(src, frameW, frameH, dst, i * drawW * drawH, drawW, drawH);
+            }
+            return new Frames(count, drawW, drawH, IntBuffer.wrap(dst));
+        }
+
+        public int getCount() { return count; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+
+        /** A read view of all pixels, positioned at frame 0. */
+        public IntBuffer getPixels() { return pixels.duplicate(); }
+    }
+
+    public static class Builder {
+        private final List<Entry> entries = new ArrayList<>();
+
+        /**
+         * Adds every {@code frameW x frameH} cell of a sheet, to be stored at {@code drawW x drawH}.
+         * A null sheet (missing resource) is skipped.
+         */
+        public Builder add(String name, Image sheet, int frameW, int frameH, int drawW, int drawH) {
+            return add(name, Frames.slice(sheet, frameW, frameH, drawW, drawH));
+        }
+
+        /**
+         * Adds frames sliced earlier; null (missing sheet) is skipped.
+         */
+        public Builder add(String name, Frames frames) {
+            if (frames != null && frames.count > 0) {
+                entries.add(new Entry(name, frames));
+            }
+            return this;
+        }
+
+        public SpriteAtlas build() {
+            // 1. Shelf packing: frames left to right, new shelf when the row is full
+            int x = 0, y = 0, shelfH = 0, atlasW = 1;
+            for (Entry e : entries) {
+                e.xs = new int[e.frames.count];
+                e.ys = new int[e.frames.count];
+                for (int i = 0; i < e.frames.count; i++) {
+                    if (x + e.drawW > MAX_WIDTH) {
+                        x = 0;
+                        y += shelfH;
+                        shelfH = 0;
+                    }
+                    e.xs[i] = x;
+                    e.ys[i] = y;
+                    x += e.drawW;
+                    shelfH = Math.max(shelfH, e.drawH);
+                    atlasW = Math.max(atlasW, x);
+                }
+            }
+            int atlasH = Math.max(1, y + shelfH);
+
+            // 2. Copy each pre-scaled frame into its slot
+            WritableImage atlas = new WritableImage(atlasW, atlasH);
+            PixelWriter out = atlas.getPixelWriter();
+            Map<String, Strip> strips = new HashMap<>();
+            for (Entry e : entries) {
+                IntBuffer px = e.frames.getPixels();
+                int frameSize = e.drawW * e.drawH;
+                // The writer goes pixel by pixel through a mapped buffer; bulk-copy to an array first
+                int[] frame = px.hasArray() ? null : new int[frameSize];
+                for (int i = 0; i < e.frames.count; i++) {
+                    if (frame == null) {
+                        out.setPixels(e.xs[i], e.ys[i], e.drawW, e.drawH, PixelFormat.getIntArgbPreInstance(),
+                                      px.array(), px.arrayOffset() + i * frameSize, e.drawW);
+                    } else {
+                        px.get(frame);
+                        out.setPixels(e.xs[i], e.ys[i], e.drawW, e.drawH, PixelFormat.getIntArgbPreInstance(),
+                                      frame, 0, e.drawW);
+                    }
+                }
+                strips.put(e.name, new Strip(atlas, e.xs, e.ys, e.drawW, e.drawH));
+            }
+            return new SpriteAtlas(atlas, strips);
+        }
+    }
+
+    /**
+     * Resamples premultiplied ARGB pixels; each axis is enlarged with nearest
+     * neighbour or reduced with a box filter.
+     */
+    static void scale(int[] src, int sw, int sh, int[] dst, int dstOff, int dw, int dh) {
+        for (int dy = 0; dy < dh; dy++) {
+            int y0 = dy * sh / dh;
+            int y1 = Math.max(y0 + 1, (dy + 1) * sh / dh);
+            for (int dx = 0; dx < dw; dx++) {
+                int x0 = dx * sw / dw;
+                int x1 = Math.max(x0 + 1, (dx + 1) * sw / dw);
+                if (y1 - y0 == 1 && x1 - x0 == 1) {
+                    dst[dstOff + dy * dw + dx] = src[y0 * sw + x0];
+                    continue;
+                }
+                long a = 0, r = 0, g = 0, b = 0;
+                for (int sy = y0; sy < y1; sy++) {
+                    for (int sx = x0; sx < x1; sx++) {
+                        int p = src[sy * sw + sx];
+                        a += p >>> 24;
+                        r += (p >> 16) & 0xFF;
+                        g += (p >> 8) & 0xFF;
+                        b += p & 0xFF;
+                    }
+                }
+                int n = (y1 - y0) * (x1 - x0);
+                dst[dstOff + dy * dw + dx] = (int) ((a / n) << 24 | (r / n) << 16 | (g / n) << 8 | (b / n));
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final Frames frames;
+        final int drawW, drawH;
+        int[] xs, ys;
+
+        Entry(String name, Frames frames) {
+            this.name = name;
+            this.frames = frames;
+            this.drawW = frames.width;
+            this.drawH = frames.height;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.mygame.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * On-disk cache of decoded, sliced and scaled sprite frames, so a warm start
+ * skips PNG decoding and rescaling and just maps the pixels.
+ *
+ * One file per sheet, named after the sheet, a checksum of the source PNG and
+ * the slicing parameters; a changed PNG or frame size simply misses and
+ * writes a new file. Layout (little-endian): magic "PPAC", version, frame
+ * count, width, height, source checksum (long), reserved int, then
+ * count * width * height premultiplied ARGB ints.
+ *
+ * Location: -Dgame.assetCache (default ~/.penalty-pixel/cache), "none" disables it.
+ */
+public class SpriteCache {
+
+    private static final int MAGIC = 0x50504143; // "PPAC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final Path dir; // null = disabled
+
+    public SpriteCache(Path dir) {
+        this.dir = dir;
+    }
+
+    public static SpriteCache fromSystemProperties() {
+        String dir = System.getProperty("game.assetCache",
+                Paths.get(System.getProperty("user.home"), ".penalty-pixel", "cache").toString());
+        return new SpriteCache(dir.equals("none") ? null : Paths.get(dir));
+    }
+
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    /**
+     * @return the cached frames, memory-mapped, or null on a miss (or a damaged file)
+     */
+    public SpriteAtlas.Frames load(String name, long sourceCrc, int frameW, int frameH, int drawW, int drawH) {
+        if (dir == null) return null;
+        Path file = dir.resolve(fileName(name, sourceCrc, frameW, frameH, drawW, drawH));
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.remaining() < HEADER_BYTES || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                return null;
+            }
+            int count = map.getInt(8), w = map.getInt(12), h = map.getInt(16);
+            if (map.getLong(20) != sourceCrc || w != drawW || h != drawH
+                    || map.capacity() != HEADER_BYTES + 4L * count * w * h) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            IntBuffer pixels = map.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            return new SpriteAtlas.Frames(count, w, h, pixels);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring asset cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes frames for later starts. Written to a temporary file and moved in
+     * place, so a crash or a second game instance never sees half a file.
+     * Failures are logged and otherwise ignored.
+     */
+    public void store(String name, long sourceCrc, int frameW, int frameH, SpriteAtlas.Frames frames) {
+        if (dir == null || frames == null) return;
+        Path file = dir.resolve(fileName(name, sourceCrc, frameW, frameH, frames.getWidth(), frames.getHeight()));
+        Path tmp = null;
+        try {
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, name, ".tmp");
+            IntBuffer src = frames.getPixels();
+            ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + 4 * src.remaining()).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION)
+               .putInt(frames.getCount()).putInt(frames.getWidth()).putInt(frames.getHeight())
+               .putLong(sourceCrc).putInt(0);
+            buf.asIntBuffer().put(src);
+            buf.clear();
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write asset cache " + file + ": " + e.getMessage());
+            try {
+                if (tmp != null) Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+
+    private static String fileName(String name, long sourceCrc, int frameW, int frameH, int drawW, int drawH) {
+        return String.format("%s-%08x-%dx%d-%dx%d.frames", name, sourceCrc, frameW, frameH, drawW, drawH);
+    }
+}
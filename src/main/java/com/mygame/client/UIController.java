@@ -1,36 +1,73 @@
 package com.mygame.client;
 
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
 /**
  * Very small UI overlay controller for screens:
- * Landing -> Player select -> Game -> End
+ * Loading -> Landing -> Player select -> Game -> End
  * IMPROVEMENT: Updated End screen to show scores.
  */
 public class UIController {
 
     private final StackPane root;
+    private final VBox loadingPane;
+    private final ProgressBar loadingBar;
     private final VBox landingPane;
     private final VBox selectPane;
     private final VBox endPane;
     private final Label endScoreLabel; // New field to update score dynamically
 
+    // Telemetry overlay (F3), kept outside root so screen changes don't remove it
+    private static final long OVERLAY_REFRESH_NANOS = 250_000_000L;
+    private final Label overlay;
+    private FrameTelemetry telemetry;
+    private long lastOverlayRefresh = 0;
+
     public UIController() {
         root = new StackPane();
         root.setPickOnBounds(false); // allow canvas events through
 
+        loadingBar = new ProgressBar(0);
+        loadingPane = buildLoading();
         landingPane = buildLanding();
         selectPane = buildSelect();
         endPane = buildEnd();
         endScoreLabel = (Label) endPane.getChildren().get(1); // Get the dynamically updated label
 
         root.getChildren().addAll(landingPane);
+
+        overlay = buildOverlay();
+    }
+
+    private Label buildOverlay() {
+        Label l = new Label();
+        l.setFont(Font.font("Monospaced", 13));
+        l.setTextFill(Color.WHITE);
+        l.setStyle("-fx-background-color: rgba(0,0,0,0.6); -fx-padding: 6;");
+        l.setMouseTransparent(true);
+        l.setVisible(false);
+        StackPane.setAlignment(l, Pos.TOP_LEFT);
+        return l;
+    }
+
+    private VBox buildLoading() {
+        VBox box = new VBox(10);
+        box.setAlignment(Pos.CENTER);
+        Label l = new Label("Loading...");
+        l.setFont(Font.font("Arial", FontWeight.BOLD, 24));
+        loadingBar.setPrefWidth(300);
+        box.getChildren().addAll(l, loadingBar);
+        box.setVisible(false);
+        return box;
     }
 
     private VBox buildLanding() {
@@ -77,6 +114,40 @@ public class UIController {
         return root;
     }
 
+    /**
+     * Node showing the frame telemetry; add it above the root.
+     */
+    public Label getOverlay() {
+        return overlay;
+    }
+
+    public void setTelemetry(FrameTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    public void toggleOverlay() {
+        overlay.setVisible(!overlay.isVisible());
+        lastOverlayRefresh = 0; // refresh on the next frame
+    }
+
+    public void showLoading() {
+        loadingBar.setProgress(0);
+        root.getChildren().clear();
+        root.getChildren().add(loadingPane);
+        loadingPane.setVisible(true);
+    }
+
+    /**
+     * Moves the loading bar; safe to call from any thread.
+     */
+    public void setLoadingProgress(double fraction) {
+        if (Platform.isFxApplicationThread()) {
+            loadingBar.setProgress(fraction);
+        } else {
+            Platform.runLater(() -> loadingBar.setProgress(fraction));
+        }
+    }
+
     public void showSelect() {
         root.getChildren().clear();
         root.getChildren().add(selectPane);
@@ -104,6 +175,11 @@ public class UIController {
     }
 
     public void updateUI(GameState state) {
-        // Since we now render status directly on the canvas (RenderSystem), this can remain empty.
+        // Status is rendered on the canvas (RenderSystem); only the telemetry overlay lives here.
+        if (telemetry == null || !overlay.isVisible()) return;
+        long now = System.nanoTime();
+        if (now - lastOverlayRefresh < OVERLAY_REFRESH_NANOS) return;
+        lastOverlayRefresh = now;
+        overlay.setText(telemetry.summary() + "F3 hide  F4 reset");
     }
 }
\ No newline at end of file
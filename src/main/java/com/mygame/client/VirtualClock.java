@@ -0,0 +1,71 @@
+package com.mygame.client;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Deterministic clock that only moves when told to, on the caller's thread.
+ * Every {@link #step} is exactly one simulation tick, so a run depends only on
+ * the inputs, never on machine speed. Loops without a RenderSystem (headless)
+ * can be driven as fast as the CPU allows, e.g. to play whole matches in tests:
+ * <pre>
+ *   VirtualClock clock = new VirtualClock();
+ *   GameLoop loop = new GameLoop(state, null, () -> bots, null);
+ *   loop.setClock(clock);
+ *   loop.start();
+ *   clock.runUntil(state.getMatch()::isOver, 100_000);
+ * </pre>
+ */
+public class VirtualClock implements GameClock {
+
+    private GameLoop loop;
+    private long now = 0;
+    private long ticks = 0;
+
+    @Override
+    public void start(GameLoop loop) {
+        this.loop = loop;
+        loop.pulse(now); // sets the loop's time origin
+    }
+
+    @Override
+    public void stop() {
+        loop = null;
+    }
+
+    /**
+     * Runs exactly one tick.
+     */
+    public void step() {
+        if (loop == null) throw new IllegalStateException("clock is not started");
+        now += GameLoop.TICK_NANOS_CEIL;
+        ticks++;
+        loop.pulse(now);
+    }
+
+    public void runTicks(long count) {
+        for (long i = 0; i < count && loop != null; i++) step();
+    }
+
+    /**
+     * Steps until the condition holds or maxTicks ran.
+     * @return true if the condition was met
+     */
+    public boolean runUntil(BooleanSupplier done, long maxTicks) {
+        for (long i = 0; i < maxTicks && loop != null; i++) {
+            if (done.getAsBoolean()) return true;
+            step();
+        }
+        return done.getAsBoolean();
+    }
+
+    /**
+     * Simulation time in nanos since start.
+     */
+    public long getNanos() {
+        return now;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
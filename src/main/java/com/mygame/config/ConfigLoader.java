@@ -0,0 +1,147 @@
+package com.mygame.config;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads config.xml into a {@link GameConfig}. The document is validated
+ * against config.xsd while it is parsed (one pass); the compiled schema is
+ * shared by every load. Nothing XML survives the call.
+ */
+public final class ConfigLoader {
+
+    public static final String RESOURCE = "/config.xml";
+    private static final String SCHEMA_RESOURCE = "/config.xsd";
+
+    private static volatile Schema schema;
+
+    private ConfigLoader() { }
+
+    public static GameConfig load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in, file.toString());
+        }
+    }
+
+    /**
+     * Loads the config.xml bundled with the game.
+     */
+    public static GameConfig loadDefault() throws IOException {
+        try (InputStream in = ConfigLoader.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) throw new IOException(RESOURCE + " not on the classpath");
+            return load(in, RESOURCE);
+        }
+    }
+
+    /**
+     * @param source name for error messages
+     * @throws IOException if the file can't be read, breaks the schema or holds unplayable values
+     */
+    public static GameConfig load(InputStream in, String source) throws IOException {
+        Document doc;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setSchema(schema());
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            builder.setErrorHandler(STRICT);
+            doc = builder.parse(in, source);
+        } catch (SAXException e) {
+            throw new IOException("Invalid " + source + ": " + e.getMessage(), e);
+        } catch (ParserConfigurationException e) {
+            throw new IOException("No XML parser for " + source, e);
+        }
+        try {
+            return bind(doc.getDocumentElement());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    // The schema guarantees every required element and attribute is there and well-typed
+    private static GameConfig bind(Element root) {
+        Element players = child(root, "players");
+        Element player = child(players, "player");
+        Element keeper = child(players, "goalkeeper");
+        Element ball = child(root, "ball");
+        Element goal = child(root, "goal");
+        Element difficulty = child(root, "difficulty");
+
+        GameConfig.Builder b = new GameConfig.Builder()
+                .player(intAttr(player, "speed"), intAttr(player, "width"))
+                .goalkeeper(intAttr(keeper, "speed"), intAttr(keeper, "width"))
+                .ball(intText(ball, "minPower"), intText(ball, "maxPower"), text(ball, "color"))
+                .goal(intText(goal, "height"), intText(goal, "width"))
+                .rounds(intText(root, "rounds"))
+                .difficulty(text(difficulty, "level"),
+                            Double.parseDouble(text(difficulty, "keeperReaction")),
+                            intText(difficulty, "maxTimeToShoot"));
+        // Optional, older files don't have them
+        if (child(ball, "baseSpeed") != null) b.baseSpeed(Double.parseDouble(text(ball, "baseSpeed")));
+        if (child(ball, "powerStep") != null) b.powerStep(Double.parseDouble(text(ball, "powerStep")));
+        return b.build();
+    }
+
+    private static Element child(Element parent, String name) {
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() == Node.ELEMENT_NODE && name.equals(n.getLocalName())) return (Element) n;
+        }
+        return null;
+    }
+
+    private static String text(Element parent, String name) {
+        return child(parent, name).getTextContent().trim();
+    }
+
+    private static int intText(Element parent, String name) {
+        return Integer.parseInt(text(parent, name));
+    }
+
+    private static int intAttr(Element e, String name) {
+        return Integer.parseInt(e.getAttribute(name).trim());
+    }
+
+    private static Schema schema() throws SAXException, IOException {
+        Schema s = schema;
+        if (s == null) {
+            URL xsd = ConfigLoader.class.getResource(SCHEMA_RESOURCE);
+            if (xsd == null) throw new IOException(SCHEMA_RESOURCE + " not on the classpath");
+            s = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(xsd);
+            schema = s; // a duplicate compile in a race is harmless
+        }
+        return s;
+    }
+
+    // The default handler only prints validation errors; fail the load instead
+    private static final ErrorHandler STRICT = new ErrorHandler() {
+        @Override
+        public void warning(SAXParseException e) { }
+
+        @Override
+        public void error(SAXParseException e) throws SAXException {
+            throw e;
+        }
+
+        @Override
+        public void fatalError(SAXParseException e) throws SAXException {
+            throw e;
+        }
+    };
+}
@@ -0,0 +1,144 @@
+package com.mygame.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Holds the current {@link GameConfig} and replaces it when config.xml
+ * changes on disk.
+ *
+ * Readers call {@link #get()} (one volatile read) once per tick and use that
+ * object for the whole tick, so a reload takes effect between two ticks and
+ * never half-way through one. A reload parses and validates the file on the
+ * watcher thread; an invalid file is reported and the previous config stays.
+ *
+ * -Dgame.config=path/to/config.xml selects the file; without it the bundled
+ * config.xml is used and nothing is watched.
+ */
+public class ConfigWatcher implements Supplier<GameConfig>, AutoCloseable {
+
+    // Editors save in several writes; wait for them to settle before reading
+    private static final long SETTLE_MS = 200;
+
+    private final Path file; // null = bundled, not watched
+    private volatile GameConfig current;
+    private WatchService watchService;
+
+    /**
+     * Loads the initial config; a file that is missing or invalid at startup is an error.
+     */
+    public ConfigWatcher(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.current = ConfigLoader.load(this.file);
+    }
+
+    private ConfigWatcher(GameConfig config) {
+        this.file = null;
+        this.current = config;
+    }
+
+    /**
+     * A watcher for -Dgame.config, or a fixed bundled config. Falls back to
+     * {@link GameConfig#DEFAULT} (with a message) if nothing can be loaded.
+     */
+    public static ConfigWatcher fromSystemProperties() {
+        String path = System.getProperty("game.config");
+        try {
+            if (path != null) {
+                ConfigWatcher watcher = new ConfigWatcher(Paths.get(path));
+                watcher.start();
+                return watcher;
+            }
+            return new ConfigWatcher(ConfigLoader.loadDefault());
+        } catch (IOException e) {
+            System.err.println("Using built-in game config: " + e.getMessage());
+            return new ConfigWatcher(GameConfig.DEFAULT);
+        }
+    }
+
+    @Override
+    public GameConfig get() {
+        return current;
+    }
+
+    /**
+     * Starts watching the file on a daemon thread. No-op for the bundled config.
+     */
+    public synchronized void start() throws IOException {
+        if (file == null || watchService != null) return;
+        watchService = FileSystems.getDefault().newWatchService();
+        // Watch the directory: editors often replace the file instead of writing it
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread t = new Thread(() -> watch(watchService), "config-watcher");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void watch(WatchService ws) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                boolean changed = concernsFile(key);
+                // Collapse the burst of events from one save
+                WatchKey more;
+                while ((more = ws.poll(SETTLE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= concernsFile(more);
+                }
+                if (changed) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean concernsFile(WatchKey key) {
+        boolean hit = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (context instanceof Path && file.getFileName().equals(context))) {
+                hit = true;
+            }
+        }
+        key.reset();
+        return hit;
+    }
+
+    /**
+     * Reads the file again and swaps it in if it is valid.
+     * @return true if a new config is now current
+     */
+    public boolean reload() {
+        if (file == null) return false;
+        try {
+            GameConfig next = ConfigLoader.load(file);
+            current = next;
+            System.out.println("Reloaded " + file + ": " + next);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Keeping previous config, " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+        watchService = null;
+    }
+}
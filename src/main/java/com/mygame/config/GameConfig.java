@@ -0,0 +1,164 @@
+package com.mygame.config;
+
+import com.mygame.engine.MatchRules;
+import com.mygame.sim.Difficulty;
+
+/**
+ * config.xml bound to plain fields. Immutable: it is built once per (re)load
+ * by {@link ConfigLoader} and then only read, so the game loop and the
+ * server tick threads can use it without locks or any XML access.
+ * The engine and simulator views ({@link #getRules()}, {@link #getDifficulty()})
+ * are built together with it.
+ */
+public final class GameConfig {
+
+    /** Values shipped in config.xml, used when no file can be read. */
+    public static final GameConfig DEFAULT = new Builder().build();
+
+    // <players>
+    private final int playerSpeed, playerWidth;
+    private final int keeperSpeed, keeperWidth;
+    // <ball>
+    private final int minPower, maxPower;
+    private final String ballColor;
+    private final double baseSpeed, powerStep;
+    // <goal>
+    private final int goalHeight, goalWidth;
+    // <rounds>: kicks per player
+    private final int rounds;
+    // <difficulty>
+    private final String level;
+    private final double keeperReaction;
+    private final int maxTimeToShoot;
+
+    private final MatchRules rules;
+    private final Difficulty difficulty;
+
+    private GameConfig(Builder b) {
+        playerSpeed = b.playerSpeed;
+        playerWidth = b.playerWidth;
+        keeperSpeed = b.keeperSpeed;
+        keeperWidth = b.keeperWidth;
+        minPower = b.minPower;
+        maxPower = b.maxPower;
+        ballColor = b.ballColor;
+        baseSpeed = b.baseSpeed;
+        powerStep = b.powerStep;
+        goalHeight = b.goalHeight;
+        goalWidth = b.goalWidth;
+        rounds = b.rounds;
+        level = b.level;
+        keeperReaction = b.keeperReaction;
+        maxTimeToShoot = b.maxTimeToShoot;
+        // Both players kick once per round; the engine counts kicks
+        rules = new MatchRules(baseSpeed, powerStep, 2 * rounds);
+        difficulty = new Difficulty(keeperReaction, maxTimeToShoot, minPower, maxPower);
+    }
+
+    public int getPlayerSpeed() { return playerSpeed; }
+    public int getPlayerWidth() { return playerWidth; }
+    public int getKeeperSpeed() { return keeperSpeed; }
+    public int getKeeperWidth() { return keeperWidth; }
+    public int getMinPower() { return minPower; }
+    public int getMaxPower() { return maxPower; }
+    public String getBallColor() { return ballColor; }
+    public double getBaseSpeed() { return baseSpeed; }
+    public double getPowerStep() { return powerStep; }
+    public int getGoalHeight() { return goalHeight; }
+    public int getGoalWidth() { return goalWidth; }
+    public int getRounds() { return rounds; }
+    public String getLevel() { return level; }
+    public double getKeeperReaction() { return keeperReaction; }
+    public int getMaxTimeToShoot() { return maxTimeToShoot; }
+
+    /** The part of the config the match engine reads every tick. */
+    public MatchRules getRules() { return rules; }
+
+    /** The balance knobs for the simulator bots. */
+    public Difficulty getDifficulty() { return difficulty; }
+
+    @Override
+    public String toString() {
+        return String.format("level=%s rounds=%d %s %s", level, rounds, rules, difficulty);
+    }
+
+    /**
+     * Starts from the shipped values; {@link #build()} checks the combination.
+     */
+    public static final class Builder {
+        private int playerSpeed = 8, playerWidth = 5;
+        private int keeperSpeed = 6, keeperWidth = 7;
+        private int minPower = 5, maxPower = 20;
+        private String ballColor = "#FFFFFF";
+        private double baseSpeed = MatchRules.DEFAULT.getBallSpeed();
+        private double powerStep = MatchRules.DEFAULT.getPowerStep();
+        private int goalHeight = 100, goalWidth = 80;
+        private int rounds = MatchRules.DEFAULT.getMaxRounds() / 2;
+        private String level = "Normal";
+        private double keeperReaction = 1.2;
+        private int maxTimeToShoot = 3500;
+
+        public Builder player(int speed, int width) {
+            this.playerSpeed = speed;
+            this.playerWidth = width;
+            return this;
+        }
+
+        public Builder goalkeeper(int speed, int width) {
+            this.keeperSpeed = speed;
+            this.keeperWidth = width;
+            return this;
+        }
+
+        public Builder ball(int minPower, int maxPower, String color) {
+            this.minPower = minPower;
+            this.maxPower = maxPower;
+            this.ballColor = color;
+            return this;
+        }
+
+        public Builder baseSpeed(double baseSpeed) {
+            this.baseSpeed = baseSpeed;
+            return this;
+        }
+
+        public Builder powerStep(double powerStep) {
+            this.powerStep = powerStep;
+            return this;
+        }
+
+        public Builder goal(int height, int width) {
+            this.goalHeight = height;
+            this.goalWidth = width;
+            return this;
+        }
+
+        public Builder rounds(int rounds) {
+            this.rounds = rounds;
+            return this;
+        }
+
+        public Builder difficulty(String level, double keeperReaction, int maxTimeToShoot) {
+            this.level = level;
+            this.keeperReaction = keeperReaction;
+            this.maxTimeToShoot = maxTimeToShoot;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the values don't make a playable match:
+         *         rounds out of range, no level, or rules/difficulty their own
+         *         classes refuse
+         */
+        public GameConfig build() {
+            if (rounds < 1 || rounds > MatchRules.MAX_ROUNDS_LIMIT / 2) {
+                throw new IllegalArgumentException("Invalid rounds: " + rounds
+                        + " (1.." + MatchRules.MAX_ROUNDS_LIMIT / 2 + " per player)");
+            }
+            if (level == null || level.isBlank()) {
+                throw new IllegalArgumentException("Invalid level: '" + level + "'");
+            }
+            return new GameConfig(this);
+        }
+    }
+}
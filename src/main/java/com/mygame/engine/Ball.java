@@ -1,6 +1,6 @@
-package com.mygame.client;
+package com.mygame.engine;
 
-import javafx.scene.image.Image;
+import java.nio.ByteBuffer;
 
 /**
  * Basic ball model with trivial animation handling.
@@ -8,7 +8,7 @@ import javafx.scene.image.Image;
  */
 public class Ball {
 
-    // Overall speed multiplier
+    // Overall speed multiplier (default; see MatchRules)
     public static final double BASE_SPEED = 15.0; 
 
     // Angle parameters (in degrees, used for the left/right deviation)
@@ -17,6 +17,13 @@ public class Ball {
 
     public static final int BALL_SIZE = 100; // Size of the ball when rendered
 
+    // Slower than this (px/tick) the ball counts as stopped, so a weak shot
+    // ends its flight instead of creeping on forever under friction
+    public static final double MIN_SPEED = 0.5;
+
+    // Above this line the ball has left the pitch (past the goal)
+    public static final int OUT_TOP_Y = 50;
+
     private double x, y;
     private double vx, vy;
     
@@ -46,8 +53,9 @@ public class Ball {
         vx *= 0.995;
         vy *= 0.995;
 
-        // stop condition (off bounds)
-        if (y < 50 || y > GameWindow.HEIGHT + 200 || x < -200 || x > GameWindow.WIDTH + 200) {
+        // stop condition (off bounds, or rolled out)
+        if (y < OUT_TOP_Y || y > Pitch.HEIGHT + 200 || x < -200 || x > Pitch.WIDTH + 200
+                || vx * vx + vy * vy < MIN_SPEED * MIN_SPEED) {
             isMoving = false; // Use the consistent 'isMoving' field
             vx = vy = 0;
         }
@@ -66,9 +74,16 @@ public class Ball {
      * @param power The power (speed) of the shot (0.0 to 1.0).
      */
     public void shoot(Direction chosenDirection, double power) {
+        shoot(chosenDirection, power, BASE_SPEED);
+    }
+
+    /**
+     * @param baseSpeed shot speed at full power (px/tick)
+     */
+    public void shoot(Direction chosenDirection, double power, double baseSpeed) {
         
         // 1. Calculate final speed based on power
-        double speed = BASE_SPEED * power;
+        double speed = baseSpeed * power;
         
         // 2. Define the Base Angle: 90 degrees (Straight up)
         double angleDegrees = 90.0;
@@ -108,6 +123,8 @@ public class Ball {
     // --- Getters and Setters ---
     public double getX() { return x; }
     public double getY() { return y; }
+    public double getVx() { return vx; }
+    public double getVy() { return vy; }
 
     public void setPosition(double x, double y) { 
         this.x = x; 
@@ -118,4 +135,32 @@ public class Ball {
     public void setMoving(boolean moving) { this.isMoving = moving; }
     
     public int getAnimIndex() { return animIndex; }
-}
\ No newline at end of file
+
+    /** Bytes written by {@link #writeState}. */
+    public static final int STATE_BYTES = 49;
+
+    /**
+     * Writes everything that affects later ticks, for replays.
+     */
+    public void writeState(ByteBuffer out) {
+        out.putDouble(x);
+        out.putDouble(y);
+        out.putDouble(vx);
+        out.putDouble(vy);
+        out.put((byte) (isMoving ? 1 : 0));
+        out.putInt(maxAnimFrames);
+        out.putInt(animIndex);
+        out.putLong(ticker);
+    }
+
+    public void readState(ByteBuffer in) {
+        x = in.getDouble();
+        y = in.getDouble();
+        vx = in.getDouble();
+        vy = in.getDouble();
+        isMoving = in.get() != 0;
+        maxAnimFrames = in.getInt();
+        animIndex = in.getInt();
+        ticker = in.getLong();
+    }
+}
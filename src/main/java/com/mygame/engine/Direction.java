@@ -1,4 +1,4 @@
-package com.mygame.client;
+package com.mygame.engine;
 
 public enum Direction {
     LEFT,
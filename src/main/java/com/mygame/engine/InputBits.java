@@ -0,0 +1,71 @@
+package com.mygame.engine;
+
+/**
+ * Mutable, allocation-free {@link InputFrame} holding one bitmask per player.
+ * Used wherever input does not come from a keyboard (bots, network, replays).
+ */
+public final class InputBits implements InputFrame {
+
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int POWER_UP = 1 << 2;
+    public static final int POWER_DOWN = 1 << 3;
+    public static final int CONFIRM = 1 << 4;
+
+    /** All bits a single player can set. */
+    public static final int MASK = LEFT | RIGHT | POWER_UP | POWER_DOWN | CONFIRM;
+
+    private int p1;
+    private int p2;
+
+    public void set(int playerId, int bits) {
+        if (playerId == 1) p1 = bits & MASK;
+        else p2 = bits & MASK;
+    }
+
+    public int get(int playerId) {
+        return playerId == 1 ? p1 : p2;
+    }
+
+    public void clear() {
+        p1 = 0;
+        p2 = 0;
+    }
+
+    /**
+     * Bits that select the given direction (up stands for centre).
+     */
+    public static int of(Direction dir) {
+        return switch (dir) {
+            case LEFT -> LEFT;
+            case RIGHT -> RIGHT;
+            case CENTER -> POWER_UP;
+            case NONE -> 0;
+        };
+    }
+
+    /**
+     * Packs any frame into this one, e.g. to record or send keyboard input.
+     */
+    public InputBits copyOf(InputFrame frame) {
+        p1 = pack(frame, 1);
+        p2 = pack(frame, 2);
+        return this;
+    }
+
+    public static int pack(InputFrame frame, int playerId) {
+        int bits = 0;
+        if (frame.left(playerId)) bits |= LEFT;
+        if (frame.right(playerId)) bits |= RIGHT;
+        if (frame.powerUp(playerId)) bits |= POWER_UP;
+        if (frame.powerDown(playerId)) bits |= POWER_DOWN;
+        if (frame.confirm(playerId)) bits |= CONFIRM;
+        return bits;
+    }
+
+    @Override public boolean left(int playerId) { return (get(playerId) & LEFT) != 0; }
+    @Override public boolean right(int playerId) { return (get(playerId) & RIGHT) != 0; }
+    @Override public boolean powerUp(int playerId) { return (get(playerId) & POWER_UP) != 0; }
+    @Override public boolean powerDown(int playerId) { return (get(playerId) & POWER_DOWN) != 0; }
+    @Override public boolean confirm(int playerId) { return (get(playerId) & CONFIRM) != 0; }
+}
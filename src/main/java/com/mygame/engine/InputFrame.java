@@ -0,0 +1,24 @@
+package com.mygame.engine;
+
+/**
+ * The input of both players for a single tick.
+ * The JavaFX client backs this with the keyboard, the server and simulators
+ * back it with whatever they received or generated.
+ */
+public interface InputFrame {
+
+    boolean left(int playerId);
+    boolean right(int playerId);
+    boolean powerUp(int playerId);
+    boolean powerDown(int playerId);
+    boolean confirm(int playerId);
+
+    /** A frame with nothing pressed. */
+    InputFrame NONE = new InputFrame() {
+        @Override public boolean left(int playerId) { return false; }
+        @Override public boolean right(int playerId) { return false; }
+        @Override public boolean powerUp(int playerId) { return false; }
+        @Override public boolean powerDown(int playerId) { return false; }
+        @Override public boolean confirm(int playerId) { return false; }
+    };
+}
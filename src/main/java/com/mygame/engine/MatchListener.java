@@ -0,0 +1,23 @@
+package com.mygame.engine;
+
+/**
+ * Callbacks fired by {@link MatchState} from inside {@code update()}.
+ * Everything is a no-op by default so headless users only override what they need.
+ */
+public interface MatchListener {
+
+    /**
+     * Called once both players have committed and the ball has been shot.
+     */
+    default void onShotResolved(Player striker, Player keeper, Direction shot, Direction dive,
+                                double power, boolean goal) {
+    }
+
+    /**
+     * Called once when the last round has been played.
+     */
+    default void onMatchOver(Player p1, Player p2) {
+    }
+
+    MatchListener NONE = new MatchListener() { };
+}
@@ -0,0 +1,79 @@
+package com.mygame.engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The tunable numbers the penalty rules read every tick. Immutable, so a new
+ * set (e.g. from a reloaded config.xml) can be swapped in between two ticks
+ * with a single reference write; see {@link MatchState#setRules}.
+ */
+public final class MatchRules {
+
+    /** The values the game shipped with before they were configurable. */
+    public static final MatchRules DEFAULT =
+            new MatchRules(Ball.BASE_SPEED, Player.DEFAULT_POWER_STEP, MatchState.MAX_ROUNDS);
+
+    /** Bytes written by {@link #write}. */
+    public static final int BYTES = 2 * Double.BYTES + Integer.BYTES;
+
+    /**
+     * Exclusive upper bound on the ball speed: snapshots carry the velocity
+     * as a short in 1/1024 px/tick.
+     */
+    public static final double BALL_SPEED_LIMIT = 32.0;
+
+    /**
+     * Upper bound on the kicks in a match: the round counter runs to
+     * maxRounds + 1, and it and the scores go out as one unsigned byte.
+     */
+    public static final int MAX_ROUNDS_LIMIT = 254;
+
+    private final double ballSpeed;   // shot speed at full power (px/tick)
+    private final double powerStep;   // power bar change per tick
+    private final int maxRounds;      // kicks in a match, both players together
+
+    public MatchRules(double ballSpeed, double powerStep, int maxRounds) {
+        if (!(ballSpeed > 0 && ballSpeed < BALL_SPEED_LIMIT) || !(powerStep > 0 && powerStep <= 1)
+                || maxRounds < 1 || maxRounds > MAX_ROUNDS_LIMIT) {
+            throw new IllegalArgumentException("Invalid rules: ballSpeed=" + ballSpeed
+                    + " powerStep=" + powerStep + " maxRounds=" + maxRounds);
+        }
+        this.ballSpeed = ballSpeed;
+        this.powerStep = powerStep;
+        this.maxRounds = maxRounds;
+    }
+
+    public double getBallSpeed() { return ballSpeed; }
+    public double getPowerStep() { return powerStep; }
+    public int getMaxRounds() { return maxRounds; }
+
+    public void write(ByteBuffer out) {
+        out.putDouble(ballSpeed);
+        out.putDouble(powerStep);
+        out.putInt(maxRounds);
+    }
+
+    public static MatchRules read(ByteBuffer in) {
+        return new MatchRules(in.getDouble(), in.getDouble(), in.getInt());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MatchRules)) return false;
+        MatchRules r = (MatchRules) o;
+        return Double.compare(ballSpeed, r.ballSpeed) == 0
+                && Double.compare(powerStep, r.powerStep) == 0
+                && maxRounds == r.maxRounds;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(ballSpeed) * 31 * 31 + Double.hashCode(powerStep) * 31 + maxRounds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ballSpeed=%.2f powerStep=%.3f maxRounds=%d", ballSpeed, powerStep, maxRounds);
+    }
+}
@@ -0,0 +1,247 @@
+package com.mygame.engine;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Headless penalty rules: players, ball, current shot, round and turn machine.
+ * Driven one tick at a time by an {@link InputFrame}; has no JavaFX, rendering
+ * or networking dependencies so it can run inside a server, a simulator or a test.
+ */
+public class MatchState {
+
+    /** Default round limit; the limit in effect comes from {@link MatchRules}. */
+    public static final int MAX_ROUNDS = 10;
+    public static final int TICKS_PER_SECOND = 60;
+
+    private Player p1, p2;
+    private Ball ball;
+    private MatchListener listener = MatchListener.NONE;
+    private MatchRules rules = MatchRules.DEFAULT;
+
+    private int currentKickerId = 1;
+    private int round = 0;
+    private boolean awaitingInput = true;
+    private boolean awaitingPowerConfirmation = false; // Striker is choosing power
+    private boolean over = false;
+
+    /**
+     * Creates a match with two fresh players and a ball, ready for round 1.
+     */
+    public static MatchState newMatch(String p1Name, String p2Name) {
+        MatchState match = new MatchState();
+        match.init(new Player(p1Name, 1, true),
+                   new Player(p2Name, 2, false),
+                   new Ball(Pitch.WIDTH / 2.0, Pitch.HEIGHT - 140));
+        return match;
+    }
+
+    public void init(Player p1, Player p2, Ball ball) {
+        this.p1 = p1;
+        this.p2 = p2;
+        this.ball = ball;
+        // Ensure roles are set correctly for the first round
+        p1.setStriker(true);
+        p2.setStriker(false);
+        this.currentKickerId = 1;
+        this.round = 1;
+        this.awaitingInput = true;
+        this.awaitingPowerConfirmation = false;
+        this.over = false;
+        resetBallPosition();
+    }
+
+    public void setListener(MatchListener listener) {
+        this.listener = (listener != null) ? listener : MatchListener.NONE;
+    }
+
+    /**
+     * Rules for the following ticks. The owner swaps them between ticks only,
+     * so one tick never mixes two rule sets.
+     */
+    public void setRules(MatchRules rules) {
+        this.rules = (rules != null) ? rules : MatchRules.DEFAULT;
+    }
+
+    public MatchRules getRules() {
+        return rules;
+    }
+
+    // Helper to reset the ball for the next shot
+    private void resetBallPosition() {
+        // Ensure the ball resets to the striker's starting position
+        Player striker = getStriker();
+        ball.setPosition(striker.getX(), striker.getY());
+        ball.setMoving(false);
+    }
+
+    /**
+     * Advances the match by one fixed tick.
+     */
+    public void update(InputFrame input) {
+        if (over) return;
+
+        MatchRules rules = this.rules;
+        p1.tick(rules.getPowerStep());
+        p2.tick(rules.getPowerStep());
+        ball.tick();
+
+        Player striker = getStriker();
+        Player keeper = getKeeper();
+
+        if (awaitingInput) {
+            handleDirectionInput(striker, input);
+            handleDirectionInput(keeper, input);
+
+            // Striker has chosen direction, now selecting power
+            if (striker.getChosenDirection() != Direction.NONE && !awaitingPowerConfirmation) {
+                awaitingPowerConfirmation = true;
+            }
+
+            // Check for Shot Confirmation (Striker's keys)
+            if (awaitingPowerConfirmation) {
+                boolean strikerConfirmed = input.confirm(striker.getPlayerId());
+
+                if (strikerConfirmed && keeper.getChosenDirection() != Direction.NONE) {
+                    // Both players have committed, resolve the shot
+                    resolveShot(striker, keeper, rules);
+                    awaitingInput = false;      // Match enters animation phase
+                    awaitingPowerConfirmation = false;
+                }
+            }
+
+        } else if (!ball.isMoving()) {
+            // After ball stops, reset for next turn and swap roles
+            currentKickerId = (currentKickerId == 1) ? 2 : 1;
+            p1.setStriker(!p1.isStriker());
+            p2.setStriker(!p2.isStriker());
+
+            // Reset states and animations
+            p1.resetTurn();
+            p2.resetTurn();
+
+            resetBallPosition();
+
+            awaitingInput = true;
+            round++;
+            if (round > rules.getMaxRounds()) {
+                over = true;
+                listener.onMatchOver(p1, p2);
+            }
+        }
+    }
+
+    /**
+     * Direction selection is the same for both roles: pick with the arrows
+     * (up/down meaning centre), lock it in with confirm.
+     */
+    private void handleDirectionInput(Player player, InputFrame input) {
+        if (player.getChosenDirection() != Direction.NONE) return;
+
+        int id = player.getPlayerId();
+        Direction dir = Direction.NONE;
+
+        if (input.left(id)) dir = Direction.LEFT;
+        else if (input.right(id)) dir = Direction.RIGHT;
+        else if (input.powerUp(id) || input.powerDown(id)) dir = Direction.CENTER;
+
+        // Update temporary selection for visualization
+        if (dir != Direction.NONE) {
+            player.setDirectionSelection(dir);
+        }
+
+        // Confirm direction
+        if (input.confirm(id) && player.getDirectionSelection() != Direction.NONE) {
+            player.setChosenDirection(player.getDirectionSelection());
+        }
+    }
+
+    private void resolveShot(Player striker, Player keeper, MatchRules rules) {
+        Direction sDir = striker.getChosenDirection();
+        Direction kDir = keeper.getChosenDirection();
+        double power = striker.getCurrentPower();
+
+        // 1. Trigger Animations
+        striker.startAnimation(Player.ANIM_KICK_START_INDEX, Player.ANIM_KICK_FRAMES);
+        keeper.startAnimation(Player.ANIM_DIVE_START_INDEX, Player.ANIM_DIVE_FRAMES);
+
+        // 2. Goal unless the keeper guessed the side
+        boolean goal = sDir != kDir;
+        if (goal) {
+            striker.addScore();
+        }
+
+        // 3. Start Ball Movement (up the screen)
+        ball.shoot(sDir, power, rules.getBallSpeed());
+
+        listener.onShotResolved(striker, keeper, sDir, kDir, power, goal);
+    }
+
+    public Player getStriker() { return (currentKickerId == 1) ? p1 : p2; }
+    public Player getKeeper() { return (currentKickerId == 1) ? p2 : p1; }
+
+    public Player getPlayer1() { return p1; }
+    public Player getPlayer2() { return p2; }
+    public Ball getBall() { return ball; }
+    public boolean isAwaitingInput() { return awaitingInput; }
+    public boolean isAwaitingPowerConfirmation() { return awaitingPowerConfirmation; }
+    public int getCurrentKickerId() { return currentKickerId; }
+    public int getRound() { return round; }
+    public boolean isOver() { return over; }
+
+    // === STATE IO (replays) ===
+
+    /** Bytes written by {@link #writeState}. */
+    public static final int STATE_BYTES = 6 + 2 * Player.STATE_BYTES + Ball.STATE_BYTES;
+
+    private static final int FLAG_AWAITING_INPUT = 1, FLAG_AWAITING_POWER = 2, FLAG_OVER = 4;
+
+    /**
+     * Writes the complete match state; together with the inputs that follow
+     * it is enough to reproduce the rest of the match exactly.
+     */
+    public void writeState(ByteBuffer out) {
+        out.put((byte) currentKickerId);
+        out.putInt(round);
+        out.put((byte) ((awaitingInput ? FLAG_AWAITING_INPUT : 0)
+                | (awaitingPowerConfirmation ? FLAG_AWAITING_POWER : 0)
+                | (over ? FLAG_OVER : 0)));
+        p1.writeState(out);
+        p2.writeState(out);
+        ball.writeState(out);
+    }
+
+    /**
+     * Restores a state written by {@link #writeState} into an initialised match.
+     */
+    public void readState(ByteBuffer in) {
+        currentKickerId = in.get();
+        round = in.getInt();
+        int flags = in.get();
+        awaitingInput = (flags & FLAG_AWAITING_INPUT) != 0;
+        awaitingPowerConfirmation = (flags & FLAG_AWAITING_POWER) != 0;
+        over = (flags & FLAG_OVER) != 0;
+        p1.readState(in);
+        p2.readState(in);
+        ball.readState(in);
+    }
+
+    /**
+     * Round stored in state bytes starting at the buffer's position, without reading them.
+     */
+    public static int roundOf(ByteBuffer state) {
+        return state.getInt(state.position() + 1);
+    }
+
+    /**
+     * CRC-32C of the complete state, to check that a replay matches the original.
+     */
+    public long checksum() {
+        ByteBuffer buf = ByteBuffer.allocate(STATE_BYTES);
+        writeState(buf);
+        buf.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(buf);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,14 @@
+package com.mygame.engine;
+
+/**
+ * Pitch dimensions in screen space, shared by the engine and the JavaFX client.
+ * The engine never touches a Stage or Canvas, it only needs the coordinates.
+ */
+public final class Pitch {
+
+    public static final int WIDTH = 1280;
+    public static final int HEIGHT = 720;
+
+    private Pitch() {
+    }
+}
@@ -1,6 +1,6 @@
-package com.mygame.client;
+package com.mygame.engine;
 
-import javafx.scene.image.Image;
+import java.nio.ByteBuffer;
 
 /**
  * Simple player model with animation placeholder.
@@ -35,6 +35,9 @@ public class Player {
     // The starting index in the full sprite sheet array for the current animation
     private int animationStartOffset = 0; 
 
+    // Power bar change per tick unless the match rules say otherwise
+    public static final double DEFAULT_POWER_STEP = 0.02;
+
     // === UX/GAMEPLAY FIELDS ===
     private Direction directionSelection = Direction.NONE; 
     private double currentPower = 0.5; 
@@ -47,15 +50,22 @@ public class Player {
         this.isStriker = striker;
 
         if (striker) {
-            x = GameWindow.WIDTH / 2.0;
-            y = GameWindow.HEIGHT - 120; // Striker position
+            x = Pitch.WIDTH / 2.0;
+            y = Pitch.HEIGHT - 120; // Striker position
         } else {
-            x = GameWindow.WIDTH / 2.0;
+            x = Pitch.WIDTH / 2.0;
             y = 200; // Keeper position
         }
     }
 
     public void tick() {
+        tick(DEFAULT_POWER_STEP);
+    }
+
+    /**
+     * @param powerStep how far the striker's power bar moves this tick
+     */
+    public void tick(double powerStep) {
         animTicker++;
         // Cycle every 20 ticks (slower idle animation)
         if (animTicker % 20 == 0) { 
@@ -65,13 +75,13 @@ public class Player {
         // Power Bar Animation (Only for Striker when awaiting input)
         if (isStriker && chosenDirection == Direction.NONE) {
             if (isPowerIncreasing) {
-                currentPower += 0.02;
+                currentPower += powerStep;
                 if (currentPower >= 1.0) {
                     currentPower = 1.0;
                     isPowerIncreasing = false;
                 }
             } else {
-                currentPower -= 0.02;
+                currentPower -= powerStep;
                 if (currentPower <= 0.0) {
                     currentPower = 0.0;
                     isPowerIncreasing = true;
@@ -136,7 +146,7 @@ public class Player {
         isStriker = s;
         // Reset position based on role
         if (s) {
-             y = GameWindow.HEIGHT - 120;
+             y = Pitch.HEIGHT - 120;
         } else {
              y = 270;
         }
@@ -149,4 +159,42 @@ public class Player {
     public void setChosenDirection(Direction dir) { this.chosenDirection = dir; }
 
     // Removed unused getCurrentFrame()
+
+    // === STATE IO (replays) ===
+
+    /** Bytes written by {@link #writeState}. */
+    public static final int STATE_BYTES = 52;
+
+    /**
+     * Writes everything that affects later ticks (not name or id, which never change).
+     */
+    public void writeState(ByteBuffer out) {
+        out.put((byte) (isStriker ? 1 : 0));
+        out.putInt(score);
+        out.putDouble(x);
+        out.putDouble(y);
+        out.putInt(animationIndex);
+        out.putLong(animTicker);
+        out.putInt(maxAnimFrames);
+        out.putInt(animationStartOffset);
+        out.put((byte) directionSelection.ordinal());
+        out.putDouble(currentPower);
+        out.put((byte) (isPowerIncreasing ? 1 : 0));
+        out.put((byte) chosenDirection.ordinal());
+    }
+
+    public void readState(ByteBuffer in) {
+        isStriker = in.get() != 0;
+        score = in.getInt();
+        x = in.getDouble();
+        y = in.getDouble();
+        animationIndex = in.getInt();
+        animTicker = in.getLong();
+        maxAnimFrames = in.getInt();
+        animationStartOffset = in.getInt();
+        directionSelection = Direction.values()[in.get()];
+        currentPower = in.getDouble();
+        isPowerIncreasing = in.get() != 0;
+        chosenDirection = Direction.values()[in.get()];
+    }
 }
\ No newline at end of file
@@ -3,25 +3,86 @@ package com.mygame.jms;
 import org.apache.activemq.ActiveMQConnectionFactory;
 
 import javax.jms.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Replaces CorbaMatchManager.
  * Sends asynchronous messages to the JMS Broker to handle match logic.
+ *
+ * Never blocks the caller: connecting, sending and reconnecting all happen
+ * on one background thread (which also owns every JMS object). Requests made
+ * while the broker is unreachable wait in a bounded outbound buffer and go
+ * out once a connection is up; failed connects are retried with exponential
+ * backoff.
  */
 public class JmsMatchClient {
 
+    // Bounded so a dead broker costs seconds, not the 30 s TCP default
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final int SEND_TIMEOUT_MS = 2000;
+    private static final long MIN_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int MAX_PENDING = 256;
+
+    /**
+     * A request waiting to be sent; builds its message on the JMS thread.
+     */
+    private interface Outbound {
+        Message build(Session session) throws JMSException;
+    }
+
+    private final ScheduledExecutorService executor;
+    private final String brokerUrl;
+
+    // Owned by the executor thread
     private Connection connection;
     private Session session;
     private MessageProducer producer;
     private MessageConsumer consumer;
+    private long backoffMs = MIN_BACKOFF_MS;
+    private boolean reconnectScheduled = false;
+
+    private final Deque<Outbound> pending = new ArrayDeque<>(); // guarded by itself
+    private volatile boolean connected = false;
+    private volatile boolean closed = false;
 
     public JmsMatchClient() {
+        this(JmsConstants.BROKER_URL);
+    }
+
+    public JmsMatchClient(String brokerUrl) {
+        this.brokerUrl = brokerUrl + (brokerUrl.contains("?") ? "&" : "?") + "connectionTimeout=" + CONNECT_TIMEOUT_MS;
+        ScheduledThreadPoolExecutor ex = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "jms-client");
+            t.setDaemon(true);
+            return t;
+        });
+        ex.setRemoveOnCancelPolicy(true);
+        ex.setExecuteExistingDelayedTasksAfterShutdownPolicy(false); // pending reconnects die with close()
+        executor = ex;
+        executor.execute(this::connect);
+    }
+
+    // === Connection (executor thread) ===
+
+    private void connect() {
+        reconnectScheduled = false;
+        if (closed || connected) return;
         try {
             // 1. Create ConnectionFactory
-            ConnectionFactory factory = new ActiveMQConnectionFactory(JmsConstants.BROKER_URL);
+            ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(brokerUrl);
+            factory.setConnectResponseTimeout(CONNECT_TIMEOUT_MS);
+            factory.setSendTimeout(SEND_TIMEOUT_MS);
 
             // 2. Create Connection
             connection = factory.createConnection();
+            connection.setExceptionListener(e -> runOnJmsThread(() -> onConnectionLost(e)));
             connection.start();
 
             // 3. Create Session (false = non-transacted, AUTO_ACK)
@@ -38,47 +99,127 @@ public class JmsMatchClient {
             consumer = session.createConsumer(eventTopic);
             consumer.setMessageListener(message -> onMessageReceived(message));
 
+            connected = true;
+            backoffMs = MIN_BACKOFF_MS;
             System.out.println("JMS Client Connected.");
+            drain();
 
         } catch (JMSException e) {
-            System.err.println("JMS Connection failed. Is ActiveMQ running?");
-            e.printStackTrace();
+            System.err.println("JMS Connection failed (" + e.getMessage() + "). Is ActiveMQ running? Retrying in "
+                    + backoffMs + " ms");
+            disconnect();
+            scheduleReconnect();
+        }
+    }
+
+    private void onConnectionLost(JMSException e) {
+        if (closed || !connected) return;
+        System.err.println("JMS connection lost: " + e.getMessage());
+        disconnect();
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (closed || reconnectScheduled) return;
+        reconnectScheduled = true;
+        // Full jitter so many clients don't hammer a recovering broker in step
+        long delay = ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1);
+        executor.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+    }
+
+    private void disconnect() {
+        connected = false;
+        try {
+            if (connection != null) connection.close();
+        } catch (JMSException ignored) {
+            // already broken
+        }
+        connection = null;
+        session = null;
+        producer = null;
+        consumer = null;
+    }
+
+    // Sends buffered requests in order; stops at the first failure and keeps it for later
+    private void drain() {
+        while (connected) {
+            Outbound next;
+            synchronized (pending) {
+                next = pending.peekFirst();
+            }
+            if (next == null) return;
+            try {
+                producer.send(next.build(session));
+            } catch (JMSException e) {
+                System.err.println("[JMS Client] Send failed, will retry: " + e.getMessage());
+                disconnect();
+                scheduleReconnect();
+                return;
+            }
+            synchronized (pending) {
+                pending.pollFirst();
+            }
+        }
+    }
+
+    private void runOnJmsThread(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // closed meanwhile
+        }
+    }
+
+    private void enqueue(Outbound request, String description) {
+        if (closed) return;
+        synchronized (pending) {
+            if (pending.size() >= MAX_PENDING) {
+                pending.pollFirst();
+                System.err.println("[JMS Client] Outbound buffer full, dropped oldest request");
+            }
+            pending.addLast(request);
         }
+        System.out.println("[JMS Client] Queued " + description);
+        runOnJmsThread(this::drain);
     }
 
+    // === Public API (any thread, never blocks) ===
+
     /**
      * Sends a "CREATE" request to the queue.
      */
     public void sendCreateMatchRequest(String hostPlayer) {
-        if (session == null) return;
-        try {
-            MapMessage msg = session.createMapMessage();
+        long timestamp = System.currentTimeMillis();
+        enqueue(s -> {
+            MapMessage msg = s.createMapMessage();
             msg.setString("type", "CREATE");
             msg.setString("player", hostPlayer);
-            msg.setLong("timestamp", System.currentTimeMillis());
-            
-            producer.send(msg);
-            System.out.println("[JMS Client] Sent Create Match Request for " + hostPlayer);
-        } catch (JMSException e) {
-            e.printStackTrace();
-        }
+            msg.setLong("timestamp", timestamp);
+            return msg;
+        }, "Create Match Request for " + hostPlayer);
     }
 
     /**
      * Sends a "JOIN" request to the queue.
      */
     public void sendJoinMatchRequest(String matchId, String playerId) {
-        if (session == null) return;
-        try {
-            MapMessage msg = session.createMapMessage();
+        enqueue(s -> {
+            MapMessage msg = s.createMapMessage();
             msg.setString("type", "JOIN");
             msg.setString("matchId", matchId);
             msg.setString("player", playerId);
-            
-            producer.send(msg);
-            System.out.println("[JMS Client] Sent Join Request for " + matchId);
-        } catch (JMSException e) {
-            e.printStackTrace();
+            return msg;
+        }, "Join Request for " + matchId);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
         }
     }
 
@@ -97,11 +238,22 @@ public class JmsMatchClient {
         }
     }
 
+    /**
+     * Gives buffered requests a short, bounded chance to go out, then closes.
+     */
     public void close() {
+        if (closed) return;
+        closed = true;
+        runOnJmsThread(this::drain);
+        runOnJmsThread(this::disconnect);
+        executor.shutdown();
         try {
-            if (connection != null) connection.close();
-        } catch (JMSException e) {
-            e.printStackTrace();
+            if (!executor.awaitTermination(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+package com.mygame.replay;
+
+import com.mygame.engine.InputBits;
+import com.mygame.engine.InputFrame;
+import com.mygame.engine.MatchRules;
+import com.mygame.engine.MatchState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Appends one match's per-tick input, with periodic state keyframes, to a
+ * replay file (see {@link ReplayFormat}).
+ *
+ * {@link #record} is called on the game thread once per tick and only touches
+ * an in-memory buffer; full buffers (and one every few seconds, so a crash
+ * loses little) are handed to a background thread that writes them through a
+ * FileChannel. Not thread-safe: record and close from the same thread.
+ * {@link #close(MatchState)} also only queues the trailer, sync and close
+ * for that thread, so ending a match never waits on the disk.
+ */
+public class InputRecorder implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 4096;
+    private static final int MAX_RECORD_BYTES = 10;
+    // Hand the buffer over at least this often, even if not full
+    private static final int FLUSH_EVERY_TICKS = 5 * MatchState.TICKS_PER_SECOND;
+
+    private final FileChannel channel;
+    private final ExecutorService writer;
+    private final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+
+    private ByteBuffer buffer;
+    private int current = -1; // inputs of the open run
+    private long run = 0;
+    private long ticks = 0;
+    private int ticksSinceFlush = 0;
+    private long written = 0; // bytes handed to the writer
+
+    // Keyframe index, written after the trailer
+    private long[] keyTicks = new long[64];
+    private int[] keyRounds = new int[64];
+    private long[] keyOffsets = new long[64];
+    private int keyCount = 0;
+    private long lastKeyTick = -1;
+    private int lastKeyRound = -1;
+    private MatchRules lastRules; // null until the first tick
+    private volatile IOException failure;
+    private boolean closed = false;
+    // Completes once the file is synced and closed
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    public static InputRecorder open(Path file, String p1Name, String p2Name) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new InputRecorder(channel, p1Name, p2Name);
+    }
+
+    private InputRecorder(FileChannel channel, String p1Name, String p2Name) {
+        this.channel = channel;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "replay-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.putInt(ReplayFormat.MAGIC);
+        buffer.put(ReplayFormat.VERSION);
+        buffer.put((byte) MatchState.TICKS_PER_SECOND);
+        putName(p1Name);
+        putName(p2Name);
+    }
+
+    private void putName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(bytes.length, 255);
+        buffer.putShort((short) len);
+        buffer.put(bytes, 0, len);
+    }
+
+    /**
+     * Records the input for one tick, before it is applied to the match.
+     * @param match the match as it is before this tick, with the rules this tick uses
+     */
+    public void record(MatchState match, InputFrame input) {
+        if (closed) return;
+        if (match.getRound() != lastKeyRound || ticks - lastKeyTick >= ReplayFormat.KEYFRAME_INTERVAL_TICKS) {
+            writeKeyframe(match);
+            writeRules(match.getRules());
+        } else if (!match.getRules().equals(lastRules)) {
+            writeRules(match.getRules());
+        }
+        int inputs = ReplayFormat.packInputs(InputBits.pack(input, 1), InputBits.pack(input, 2));
+        if (inputs == current) {
+            run++;
+        } else {
+            endRun();
+            current = inputs;
+            run = 1;
+        }
+        ticks++;
+        if (++ticksSinceFlush >= FLUSH_EVERY_TICKS) {
+            // Keep the open run in memory; only completed records go out
+            ticksSinceFlush = 0;
+            if (buffer.position() > 0) handOff();
+        }
+    }
+
+    private void writeKeyframe(MatchState match) {
+        endRun();
+        current = -1; // the next tick starts a new run after the keyframe
+        if (buffer.remaining() < 2 * MAX_RECORD_BYTES + MatchState.STATE_BYTES) handOff();
+        long offset = written + buffer.position();
+        ReplayFormat.putVarLong(buffer, ReplayFormat.KEYFRAME);
+        ReplayFormat.putVarLong(buffer, ticks);
+        match.writeState(buffer);
+
+        if (keyCount == keyTicks.length) {
+            keyTicks = Arrays.copyOf(keyTicks, keyCount * 2);
+            keyRounds = Arrays.copyOf(keyRounds, keyCount * 2);
+            keyOffsets = Arrays.copyOf(keyOffsets, keyCount * 2);
+        }
+        keyTicks[keyCount] = ticks;
+        keyRounds[keyCount] = match.getRound();
+        keyOffsets[keyCount] = offset;
+        keyCount++;
+        lastKeyTick = ticks;
+        lastKeyRound = match.getRound();
+    }
+
+    private void writeRules(MatchRules rules) {
+        endRun();
+        current = -1;
+        if (buffer.remaining() < MAX_RECORD_BYTES + MatchRules.BYTES) handOff();
+        ReplayFormat.putVarLong(buffer, ReplayFormat.RULES);
+        rules.write(buffer);
+        lastRules = rules;
+    }
+
+    private void endRun() {
+        if (run == 0) return;
+        if (buffer.remaining() < MAX_RECORD_BYTES) handOff();
+        ReplayFormat.putVarLong(buffer, ReplayFormat.runRecord(current, run));
+        run = 0;
+    }
+
+    private void handOff() {
+        ByteBuffer full = buffer;
+        full.flip();
+        written += full.limit();
+        ByteBuffer next = pool.poll();
+        buffer = (next != null) ? next : ByteBuffer.allocate(BUFFER_SIZE);
+        writer.execute(() -> write(full));
+    }
+
+    private void write(ByteBuffer data) {
+        try {
+            if (failure == null) {
+                while (data.hasRemaining()) channel.write(data);
+            }
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("Replay recording failed: " + e.getMessage());
+        } finally {
+            data.clear();
+            pool.offer(data);
+        }
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Writes the trailer with the final state's checksum and the keyframe
+     * index, then closes the file. Returns at once; the writing happens on
+     * the writer thread.
+     * @param finalState the match after the last recorded tick
+     * @return completes once the file is synced and closed, exceptionally
+     *         with the IOException if writing it failed
+     */
+    public CompletableFuture<Void> close(MatchState finalState) {
+        if (closed) return done;
+        endRun();
+        if (buffer.remaining() < 2 * MAX_RECORD_BYTES + Long.BYTES) handOff();
+        ReplayFormat.putVarLong(buffer, ReplayFormat.TRAILER);
+        ReplayFormat.putVarLong(buffer, ticks);
+        buffer.putLong(finalState.checksum());
+
+        long indexOffset = written + buffer.position();
+        ReplayFormat.putVarLong(buffer, keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            if (buffer.remaining() < 3 * MAX_RECORD_BYTES) handOff();
+            ReplayFormat.putVarLong(buffer, keyTicks[i]);
+            ReplayFormat.putVarLong(buffer, keyRounds[i]);
+            ReplayFormat.putVarLong(buffer, keyOffsets[i]);
+        }
+        if (buffer.remaining() < ReplayFormat.FOOTER_BYTES) handOff();
+        buffer.putLong(indexOffset);
+        buffer.putInt(ReplayFormat.INDEX_MAGIC);
+        return finish();
+    }
+
+    /**
+     * Closes without a trailer or index; the replay stays playable up to the
+     * last tick and readers rebuild the index by scanning. Unlike
+     * {@link #close(MatchState)} this waits until the file is closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            endRun();
+            finish();
+        }
+        await(done, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Waits for a {@link #close(MatchState)} result, e.g. before the JVM exits.
+     */
+    public static void await(CompletableFuture<Void> closing, long timeout, TimeUnit unit) throws IOException {
+        try {
+            closing.get(timeout, unit);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out writing replay");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted writing replay", e);
+        }
+    }
+
+    private CompletableFuture<Void> finish() {
+        closed = true;
+        handOff();
+        writer.execute(() -> {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            if (failure != null) done.completeExceptionally(failure);
+            else done.complete(null);
+        });
+        writer.shutdown();
+        return done;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mygame.replay;
+
+import com.mygame.engine.MatchRules;
+import com.mygame.engine.MatchState;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of a recorded match (.ppr), all big-endian:
+ * <pre>
+ *   header   int magic "PPRP", byte version, byte ticks per second,
+ *            short length + UTF-8 name, for player 1 then player 2
+ *   records  varint ((run - 1) &lt;&lt; 11 | p2 &lt;&lt; 6 | p1 &lt;&lt; 1)
+ *            - the same input bits (5 per player) held for run ticks
+ *            varint 3, varint tick, MatchState state bytes
+ *            - keyframe: the match before that tick's input (version 2)
+ *            varint 5, MatchRules bytes
+ *            - the rules from the next tick on (version 3)
+ *   trailer  varint 1, varint tick count, long MatchState checksum
+ *   index    varint count, then per keyframe varint tick, varint round,
+ *            varint file offset (version 2)
+ *   footer   long index offset, int magic "PPRI" (version 2)
+ * </pre>
+ * Input only changes on key presses, so a 10-round match is a few hundred
+ * records. Keyframes are written at the first tick of every round and every
+ * {@link #KEYFRAME_INTERVAL_TICKS} ticks, so a seek re-simulates at most one
+ * interval. A file cut off before the trailer (crash) still replays up to
+ * the last complete record; its index is rebuilt by scanning.
+ * The rules are written before the first tick, whenever they change (config
+ * reload) and right after every keyframe, so a seek finds them at once.
+ * Older files were recorded with {@link MatchRules#DEFAULT}.
+ */
+final class ReplayFormat {
+
+    static final int MAGIC = 0x50505250; // "PPRP"
+    static final byte VERSION = 3;
+
+    static final int INDEX_MAGIC = 0x50505249; // "PPRI"
+    static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+
+    static final int KEYFRAME_INTERVAL_TICKS = 5 * MatchState.TICKS_PER_SECOND;
+
+    static final int PLAYER_BITS = 5;
+    static final int INPUT_BITS = 2 * PLAYER_BITS;
+    // Low bit 0 = input run, 1 = control record
+    static final long TRAILER = 1;
+    static final long KEYFRAME = 3;
+    static final long RULES = 5;
+
+    private ReplayFormat() { }
+
+    static int packInputs(int p1, int p2) {
+        return p1 | (p2 << PLAYER_BITS);
+    }
+
+    static long runRecord(int inputs, long run) {
+        return ((run - 1) << (INPUT_BITS + 1)) | ((long) inputs << 1);
+    }
+
+    static int recordInputs(long record) {
+        return (int) (record >>> 1) & ((1 << INPUT_BITS) - 1);
+    }
+
+    static long recordRun(long record) {
+        return (record >>> (INPUT_BITS + 1)) + 1;
+    }
+
+    static void putVarLong(ByteBuffer out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    /**
+     * @return the value, or -1 if the buffer ends inside it
+     */
+    static long getVarLong(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) return -1;
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IllegalStateException("Malformed varint in replay");
+    }
+}
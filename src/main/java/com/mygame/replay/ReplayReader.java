@@ -0,0 +1,254 @@
+package com.mygame.replay;
+
+import com.mygame.engine.InputBits;
+import com.mygame.engine.MatchRules;
+import com.mygame.engine.MatchState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a replay file tick by tick, and seeks to any tick or round through
+ * the keyframe index. The file is memory-mapped; stepping allocates nothing.
+ */
+public class ReplayReader {
+
+    private final ByteBuffer data;
+    private final String p1Name;
+    private final String p2Name;
+    private final int ticksPerSecond;
+    private final int recordsStart;
+
+    private int inputs;
+    private long runLeft = 0;
+    private long tick = 0;
+    private boolean ended = false;
+    private MatchRules rules = MatchRules.DEFAULT;
+
+    // From the trailer, if the recording was closed cleanly
+    private long recordedTicks = -1;
+    private long checksum;
+
+    // Keyframe index, sorted by tick
+    private long[] keyTicks = new long[0];
+    private int[] keyRounds = new int[0];
+    private int[] keyOffsets = new int[0];
+    private int keyCount = 0;
+
+    public static ReplayReader open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ReplayReader(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public ReplayReader(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.remaining() < 6 || data.getInt() != ReplayFormat.MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        byte version = data.get();
+        if (version < 1 || version > ReplayFormat.VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        ticksPerSecond = data.get();
+        p1Name = getName();
+        p2Name = getName();
+        recordsStart = data.position();
+        if (!readIndex()) scanIndex();
+    }
+
+    private String getName() throws IOException {
+        if (data.remaining() < 2) throw new IOException("Truncated replay header");
+        int len = data.getShort() & 0xFFFF;
+        if (data.remaining() < len) throw new IOException("Truncated replay header");
+        byte[] bytes = new byte[len];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Index written after the trailer by a clean close
+    private boolean readIndex() {
+        int end = data.limit();
+        if (end - recordsStart < ReplayFormat.FOOTER_BYTES
+                || data.getInt(end - Integer.BYTES) != ReplayFormat.INDEX_MAGIC) {
+            return false;
+        }
+        long offset = data.getLong(end - ReplayFormat.FOOTER_BYTES);
+        if (offset < recordsStart || offset >= end) return false;
+        ByteBuffer in = data.duplicate();
+        in.position((int) offset);
+        int count = (int) ReplayFormat.getVarLong(in);
+        if (count < 0) return false;
+        allocateIndex(count);
+        for (int i = 0; i < count; i++) {
+            keyTicks[i] = ReplayFormat.getVarLong(in);
+            keyRounds[i] = (int) ReplayFormat.getVarLong(in);
+            keyOffsets[i] = (int) ReplayFormat.getVarLong(in);
+        }
+        keyCount = count;
+        return true;
+    }
+
+    // Crash-truncated or version 1 file: find the keyframes by walking the records
+    private void scanIndex() {
+        ByteBuffer in = data.duplicate();
+        in.position(recordsStart);
+        allocateIndex(16);
+        while (true) {
+            int offset = in.position();
+            long record = ReplayFormat.getVarLong(in);
+            if (record < 0 || record == ReplayFormat.TRAILER) break;
+            if (record == ReplayFormat.RULES) {
+                if (in.remaining() < MatchRules.BYTES) break;
+                in.position(in.position() + MatchRules.BYTES);
+                continue;
+            }
+            if (record != ReplayFormat.KEYFRAME) continue;
+            long kfTick = ReplayFormat.getVarLong(in);
+            if (kfTick < 0 || in.remaining() < MatchState.STATE_BYTES) break;
+            if (keyCount == keyTicks.length) allocateIndex(keyCount * 2);
+            keyTicks[keyCount] = kfTick;
+            keyRounds[keyCount] = MatchState.roundOf(in);
+            keyOffsets[keyCount] = offset;
+            keyCount++;
+            in.position(in.position() + MatchState.STATE_BYTES);
+        }
+    }
+
+    private void allocateIndex(int size) {
+        keyTicks = Arrays.copyOf(keyTicks, size);
+        keyRounds = Arrays.copyOf(keyRounds, size);
+        keyOffsets = Arrays.copyOf(keyOffsets, size);
+    }
+
+    /**
+     * Loads the next tick's input; {@link #getRules()} then holds the rules
+     * that tick was played with.
+     * @return false at the end of the recording
+     */
+    public boolean next(InputBits out) {
+        while (runLeft == 0) {
+            if (ended) return false;
+            long record = ReplayFormat.getVarLong(data);
+            if (record < 0) {
+                ended = true; // cut off, no trailer
+                return false;
+            }
+            if (record == ReplayFormat.TRAILER) {
+                readTrailer();
+                return false;
+            }
+            if (record == ReplayFormat.KEYFRAME) {
+                // Only needed for seeking; playback steps over it
+                if (ReplayFormat.getVarLong(data) < 0 || data.remaining() < MatchState.STATE_BYTES) {
+                    ended = true;
+                    return false;
+                }
+                data.position(data.position() + MatchState.STATE_BYTES);
+                continue;
+            }
+            if (record == ReplayFormat.RULES) {
+                if (data.remaining() < MatchRules.BYTES) {
+                    ended = true;
+                    return false;
+                }
+                MatchRules next = MatchRules.read(data);
+                if (!next.equals(rules)) rules = next;
+                continue;
+            }
+            inputs = ReplayFormat.recordInputs(record);
+            runLeft = ReplayFormat.recordRun(record);
+        }
+        runLeft--;
+        tick++;
+        out.set(1, inputs & InputBits.MASK);
+        out.set(2, inputs >>> ReplayFormat.PLAYER_BITS);
+        return true;
+    }
+
+    private void readTrailer() {
+        ended = true;
+        long ticks = ReplayFormat.getVarLong(data);
+        if (ticks >= 0 && data.remaining() >= Long.BYTES) {
+            recordedTicks = ticks;
+            checksum = data.getLong();
+        }
+    }
+
+    /**
+     * Restores the match as it was before the given tick: loads the nearest
+     * keyframe at or before it and re-simulates at most one keyframe
+     * interval. Reading continues from that tick, so seeking backwards
+     * (scrubbing) is as cheap as forwards.
+     * @return a new match at the requested tick (or the last one recorded)
+     */
+    public MatchState seek(long target) {
+        MatchState match = MatchState.newMatch(p1Name, p2Name);
+        int k = keyframeAtOrBefore(target);
+        runLeft = 0;
+        ended = false;
+        rules = MatchRules.DEFAULT; // version 3 files repeat the rules after each keyframe
+        if (k < 0) {
+            // No keyframe yet (version 1 file): start from the beginning
+            data.position(recordsStart);
+            tick = 0;
+        } else {
+            data.position(keyOffsets[k]);
+            ReplayFormat.getVarLong(data); // KEYFRAME
+            tick = ReplayFormat.getVarLong(data);
+            match.readState(data);
+        }
+        InputBits input = new InputBits();
+        while (tick < target && next(input)) {
+            match.setRules(rules);
+            match.update(input);
+        }
+        return match;
+    }
+
+    /**
+     * Seeks to the first tick of the given round; with the index this is a
+     * keyframe load and no simulation.
+     */
+    public MatchState seekToRound(int round) {
+        for (int i = 0; i < keyCount; i++) {
+            if (keyRounds[i] >= round) return seek(keyTicks[i]);
+        }
+        // No keyframe that late (truncated or version 1): simulate forward
+        MatchState match = seek(keyCount > 0 ? keyTicks[keyCount - 1] : 0);
+        InputBits input = new InputBits();
+        while (match.getRound() < round && next(input)) {
+            match.setRules(rules);
+            match.update(input);
+        }
+        return match;
+    }
+
+    private int keyframeAtOrBefore(long target) {
+        int i = Arrays.binarySearch(keyTicks, 0, keyCount, target);
+        if (i >= 0) return i;
+        return -i - 2; // insertion point - 1
+    }
+
+    public String getPlayer1Name() { return p1Name; }
+    public String getPlayer2Name() { return p2Name; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+
+    /** Rules of the tick last read by {@link #next}. */
+    public MatchRules getRules() { return rules; }
+
+    /** Ticks read so far; after a seek, the tick seeked to. */
+    public long getTick() { return tick; }
+
+    public int getKeyframeCount() { return keyCount; }
+
+    /** True once the trailer was read; the checksum getters are valid from then on. */
+    public boolean hasTrailer() { return recordedTicks >= 0; }
+    public long getRecordedTicks() { return recordedTicks; }
+    public long getChecksum() { return checksum; }
+}
@@ -0,0 +1,206 @@
+package com.mygame.server;
+
+import com.mygame.engine.MatchRules;
+import com.mygame.engine.MatchState;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hosts all running matches of this node.
+ *
+ * Matches are spread over a fixed number of shards by match id. Each shard
+ * owns its own map and is ticked at 60 UPS by a small shared scheduler pool,
+ * so a shard's matches are always advanced by one thread at a time and no
+ * global lock is ever taken: RMI calls only touch a shard map entry and a
+ * volatile field of the match. Pushes to subscribers run on a separate pool
+ * so a slow client can never stall a tick thread.
+ */
+public class MatchRegistry {
+
+    private static final long NANOS_PER_TICK = 1_000_000_000L / MatchState.TICKS_PER_SECOND;
+    // Finished matches stay readable for this long before they are dropped
+    private static final long GRACE_TICKS = 10L * MatchState.TICKS_PER_SECOND;
+    // A match neither player has sent input to for this long is abandoned and dropped
+    private static final long IDLE_TICKS = 120L * MatchState.TICKS_PER_SECOND;
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pushExecutor;
+
+    // playerId -> seat in a running match
+    private final Map<String, Seat> seats = new ConcurrentHashMap<>();
+    // The one player waiting for an opponent (if any)
+    private final AtomicReference<String> waiting = new AtomicReference<>();
+    private final AtomicLong matchCounter = new AtomicLong();
+    private volatile Supplier<MatchRules> rules = () -> MatchRules.DEFAULT;
+
+    /**
+     * @param shardCount number of match shards, rounded up to a power of two
+     * @param tickThreads threads shared by all shards for ticking
+     * @param pushThreads threads delivering state to subscribers
+     */
+    public MatchRegistry(int shardCount, int tickThreads, int pushThreads) {
+        int n = 1;
+        while (n < shardCount) n <<= 1;
+        this.shards = new Shard[n];
+        this.shardMask = n - 1;
+        for (int i = 0; i < n; i++) shards[i] = new Shard();
+        this.scheduler = Executors.newScheduledThreadPool(tickThreads, r -> {
+            Thread t = new Thread(r, "match-tick");
+            t.setDaemon(true);
+            return t;
+        });
+        this.pushExecutor = Executors.newFixedThreadPool(pushThreads, r -> {
+            Thread t = new Thread(r, "match-push");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Source of the match rules; each shard reads it once per tick, so a
+     * config reload applies to all of that shard's matches from the same tick.
+     */
+    public void setRules(Supplier<MatchRules> rules) {
+        this.rules = rules;
+    }
+
+    public void start() {
+        for (Shard shard : shards) {
+            scheduler.scheduleAtFixedRate(shard::tick, 0, NANOS_PER_TICK, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+        pushExecutor.shutdownNow();
+    }
+
+    /**
+     * Adds a player to the lobby. The second waiting player starts a match with the first.
+     * A player still seated in a running match gets that match back.
+     * @return the id of the new match, or null if the player is now waiting
+     */
+    public String register(String playerId) {
+        Seat existing = seats.get(playerId);
+        if (existing != null) {
+            if (!existing.match.isOver()) return existing.match.getMatchId();
+            seats.remove(playerId, existing); // finished: free to play again
+        }
+
+        while (true) {
+            String other = waiting.get();
+            if (other == null) {
+                if (waiting.compareAndSet(null, playerId)) return null;
+            } else if (other.equals(playerId)) {
+                return null;
+            } else if (waiting.compareAndSet(other, null)) {
+                return createMatch(other, playerId).getMatchId();
+            }
+        }
+    }
+
+    public ServerMatch createMatch(String player1Id, String player2Id) {
+        String matchId = "MATCH-" + matchCounter.incrementAndGet();
+        ServerMatch match = new ServerMatch(matchId, player1Id, player2Id, pushExecutor);
+        seats.put(player1Id, new Seat(match, 1));
+        seats.put(player2Id, new Seat(match, 2));
+        shardFor(matchId).matches.put(matchId, match);
+        return match;
+    }
+
+    /**
+     * Sets the keys the player currently holds (InputBits mask).
+     * @return false if the player is not in a match
+     */
+    public boolean setKeys(String playerId, int keys) {
+        Seat seat = seats.get(playerId);
+        if (seat == null) return false;
+        seat.match.setKeys(seat.seat, keys);
+        return true;
+    }
+
+    public ServerMatch getMatch(String matchId) {
+        return shardFor(matchId).matches.get(matchId);
+    }
+
+    public String getMatchId(String playerId) {
+        Seat seat = seats.get(playerId);
+        return seat != null ? seat.match.getMatchId() : null;
+    }
+
+    public int getMatchCount() {
+        int count = 0;
+        for (Shard shard : shards) count += shard.matches.size();
+        return count;
+    }
+
+    /**
+     * Slowest full shard tick seen so far, in nanoseconds.
+     */
+    public long getMaxTickNanos() {
+        long max = 0;
+        for (Shard shard : shards) max = Math.max(max, shard.maxTickNanos);
+        return max;
+    }
+
+    // Only if the player still sits in this match and not already in a newer one
+    private void releaseSeat(String playerId, ServerMatch match) {
+        Seat seat = seats.get(playerId);
+        if (seat != null && seat.match == match) seats.remove(playerId, seat);
+    }
+
+    private Shard shardFor(String matchId) {
+        int h = matchId.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    private final class Shard {
+        final Map<String, ServerMatch> matches = new ConcurrentHashMap<>();
+        volatile long maxTickNanos;
+
+        void tick() {
+            long start = System.nanoTime();
+            MatchRules tickRules = rules.get();
+            Iterator<ServerMatch> it = matches.values().iterator();
+            while (it.hasNext()) {
+                ServerMatch match = it.next();
+                try {
+                    match.tick(tickRules);
+                    if (match.isExpired(GRACE_TICKS, IDLE_TICKS)) {
+                        it.remove();
+                        match.close();
+                        releaseSeat(match.getPlayer1Id(), match);
+                        releaseSeat(match.getPlayer2Id(), match);
+                    }
+                } catch (RuntimeException e) {
+                    // Never let one broken match cancel the whole shard's schedule
+                    System.err.println("Tick failed for " + match.getMatchId() + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+            long took = System.nanoTime() - start;
+            if (took > maxTickNanos) maxTickNanos = took;
+        }
+    }
+
+    private static final class Seat {
+        final ServerMatch match;
+        final int seat;
+
+        Seat(ServerMatch match, int seat) {
+            this.match = match;
+            this.seat = seat;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mygame.server;
+
+import com.mygame.engine.Ball;
+import com.mygame.engine.MatchState;
+import com.mygame.engine.Player;
+
+/**
+ * Immutable copy of a match taken by the tick thread at the end of a tick.
+ * RMI threads only ever read these, never the live {@link MatchState}.
+ */
+public final class MatchSnapshot {
+
+    private final String matchId;
+    private final long tick;
+    private final int round;
+    private final int kickerId;
+    private final boolean awaitingInput;
+    private final boolean awaitingPowerConfirmation;
+    private final boolean over;
+    private final PlayerView p1, p2;
+    private final double ballX, ballY, ballVx, ballVy;
+    private final int ballAnimIndex;
+    private final boolean ballMoving;
+
+    private MatchSnapshot(String matchId, long tick, MatchState match) {
+        this.matchId = matchId;
+        this.tick = tick;
+        this.round = match.getRound();
+        this.kickerId = match.getCurrentKickerId();
+        this.awaitingInput = match.isAwaitingInput();
+        this.awaitingPowerConfirmation = match.isAwaitingPowerConfirmation();
+        this.over = match.isOver();
+        this.p1 = new PlayerView(match.getPlayer1());
+        this.p2 = new PlayerView(match.getPlayer2());
+        Ball ball = match.getBall();
+        this.ballX = ball.getX();
+        this.ballY = ball.getY();
+        this.ballVx = ball.getVx();
+        this.ballVy = ball.getVy();
+        this.ballAnimIndex = ball.getAnimIndex();
+        this.ballMoving = ball.isMoving();
+    }
+
+    static MatchSnapshot of(String matchId, long tick, MatchState match) {
+        return new MatchSnapshot(matchId, tick, match);
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(320);
+        sb.append("{\"matchId\":");
+        appendString(sb, matchId);
+        sb.append(",\"tick\":").append(tick)
+          .append(",\"round\":").append(round)
+          .append(",\"kicker\":").append(kickerId)
+          .append(",\"awaitingInput\":").append(awaitingInput)
+          .append(",\"awaitingPower\":").append(awaitingPowerConfirmation)
+          .append(",\"over\":").append(over)
+          .append(",\"p1\":");
+        p1.appendJson(sb);
+        sb.append(",\"p2\":");
+        p2.appendJson(sb);
+        sb.append(",\"ball\":{\"x\":").append(ballX)
+          .append(",\"y\":").append(ballY)
+          .append(",\"vx\":").append(ballVx)
+          .append(",\"vy\":").append(ballVy)
+          .append(",\"anim\":").append(ballAnimIndex)
+          .append(",\"moving\":").append(ballMoving)
+          .append("}}");
+        return sb.toString();
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            if (c >= 0x20) sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    public String getMatchId() { return matchId; }
+    public long getTick() { return tick; }
+    public int getRound() { return round; }
+    public int getKickerId() { return kickerId; }
+    public boolean isAwaitingInput() { return awaitingInput; }
+    public boolean isAwaitingPowerConfirmation() { return awaitingPowerConfirmation; }
+    public boolean isOver() { return over; }
+    public PlayerView getPlayer1() { return p1; }
+    public PlayerView getPlayer2() { return p2; }
+    public double getBallX() { return ballX; }
+    public double getBallY() { return ballY; }
+    public double getBallVx() { return ballVx; }
+    public double getBallVy() { return ballVy; }
+    public int getBallAnimIndex() { return ballAnimIndex; }
+    public boolean isBallMoving() { return ballMoving; }
+
+    /**
+     * The per-player part of a snapshot.
+     */
+    public static final class PlayerView {
+        private final String name;
+        private final double x, y;
+        private final int animIndex;
+        private final int score;
+        private final boolean striker;
+        private final int selection;   // Direction ordinal
+        private final int chosen;      // Direction ordinal
+        private final double power;
+
+        PlayerView(Player p) {
+            this.name = p.getName();
+            this.x = p.getX();
+            this.y = p.getY();
+            this.animIndex = p.getAnimationIndex();
+            this.score = p.getScore();
+            this.striker = p.isStriker();
+            this.selection = p.getDirectionSelection().ordinal();
+            this.chosen = p.getChosenDirection().ordinal();
+            this.power = p.getCurrentPower();
+        }
+
+        void appendJson(StringBuilder sb) {
+            sb.append("{\"name\":");
+            appendString(sb, name);
+            sb.append(",\"x\":").append(x)
+              .append(",\"y\":").append(y)
+              .append(",\"anim\":").append(animIndex)
+              .append(",\"score\":").append(score)
+              .append(",\"striker\":").append(striker)
+              .append(",\"selection\":").append(selection)
+              .append(",\"chosen\":").append(chosen)
+              .append(",\"power\":").append(power)
+              .append('}');
+        }
+
+        public String getName() { return name; }
+        public double getX() { return x; }
+        public double getY() { return y; }
+        public int getAnimIndex() { return animIndex; }
+        public int getScore() { return score; }
+        public boolean isStriker() { return striker; }
+        public int getSelection() { return selection; }
+        public int getChosen() { return chosen; }
+        public double getPower() { return power; }
+    }
+}
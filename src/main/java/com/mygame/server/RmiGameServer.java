@@ -1,5 +1,11 @@
 package com.mygame.server;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mygame.config.ConfigWatcher;
+import com.mygame.engine.InputBits;
+
+import java.io.IOException;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
@@ -7,43 +13,127 @@ import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 
 /**
- * Very small RMI server + interface for later networked play.
+ * RMI front of the authoritative match server.
  *
  * Usage:
  *  - Start this main on a host to export the GameRemote.
+ *  - registerPlayer() pairs players into matches, getMatchId() tells a player where it landed.
+ *  - sendAction() takes the keys a player currently holds, e.g.
+ *    {"left":true,"right":false,"up":false,"down":false,"confirm":true}
+ *  - sendKeys() is the binary form of sendAction(), taking an InputBits mask.
+ *  - getState() returns the state of the match after its latest tick as JSON.
+ *  - getStateSince() returns the same state as a SnapshotCodec frame: a delta against
+ *    the tick the client last applied, or a full frame (pass -1 to force one).
+ *  - subscribe() streams those frames to an exported StateListener after every tick
+ *    instead of polling; slow listeners skip to the latest state.
  */
 public class RmiGameServer {
 
+    public interface StateListener extends Remote {
+        void onState(byte[] frame) throws RemoteException;
+    }
+
     public interface GameRemote extends Remote {
         void registerPlayer(String playerId) throws RemoteException;
+        String getMatchId(String playerId) throws RemoteException;
         void sendAction(String playerId, String actionJson) throws RemoteException;
+        void sendKeys(String playerId, int keys) throws RemoteException;
         String getState(String matchId) throws RemoteException;
+        byte[] getStateSince(String matchId, long ackedTick) throws RemoteException;
+        void subscribe(String matchId, StateListener listener) throws RemoteException;
+        void unsubscribe(String matchId, StateListener listener) throws RemoteException;
     }
 
     public static class GameRemoteImpl extends UnicastRemoteObject implements GameRemote {
-        protected GameRemoteImpl() throws RemoteException {
+        private static final ObjectMapper JSON = new ObjectMapper();
+
+        private final MatchRegistry registry;
+
+        protected GameRemoteImpl(MatchRegistry registry) throws RemoteException {
             super();
+            this.registry = registry;
         }
 
         @Override
         public void registerPlayer(String playerId) throws RemoteException {
-            System.out.println("Register player: " + playerId);
+            String matchId = registry.register(playerId);
+            System.out.println("Register player: " + playerId + (matchId != null ? " -> " + matchId : " (waiting)"));
+        }
+
+        @Override
+        public String getMatchId(String playerId) throws RemoteException {
+            return registry.getMatchId(playerId);
         }
 
         @Override
         public void sendAction(String playerId, String actionJson) throws RemoteException {
-            System.out.println("Action from " + playerId + " -> " + actionJson);
+            if (!registry.setKeys(playerId, parseKeys(actionJson))) {
+                throw new RemoteException("Player " + playerId + " is not in a match");
+            }
+        }
+
+        @Override
+        public void sendKeys(String playerId, int keys) throws RemoteException {
+            if (!registry.setKeys(playerId, keys)) {
+                throw new RemoteException("Player " + playerId + " is not in a match");
+            }
         }
 
         @Override
         public String getState(String matchId) throws RemoteException {
-            return "{\"state\":\"stub\",\"matchId\":\""+matchId+"\"}";
+            return match(matchId).getSnapshot().toJson();
+        }
+
+        @Override
+        public byte[] getStateSince(String matchId, long ackedTick) throws RemoteException {
+            return match(matchId).encodeSince(ackedTick);
+        }
+
+        @Override
+        public void subscribe(String matchId, StateListener listener) throws RemoteException {
+            match(matchId).subscribe(listener);
+        }
+
+        @Override
+        public void unsubscribe(String matchId, StateListener listener) throws RemoteException {
+            ServerMatch match = registry.getMatch(matchId);
+            if (match != null) match.unsubscribe(listener);
+        }
+
+        private ServerMatch match(String matchId) throws RemoteException {
+            ServerMatch match = registry.getMatch(matchId);
+            if (match == null) {
+                throw new RemoteException("Unknown match " + matchId);
+            }
+            return match;
+        }
+
+        static int parseKeys(String actionJson) throws RemoteException {
+            try {
+                JsonNode node = JSON.readTree(actionJson);
+                int keys = 0;
+                if (node.path("left").asBoolean()) keys |= InputBits.LEFT;
+                if (node.path("right").asBoolean()) keys |= InputBits.RIGHT;
+                if (node.path("up").asBoolean()) keys |= InputBits.POWER_UP;
+                if (node.path("down").asBoolean()) keys |= InputBits.POWER_DOWN;
+                if (node.path("confirm").asBoolean()) keys |= InputBits.CONFIRM;
+                return keys;
+            } catch (IOException e) {
+                throw new RemoteException("Malformed action: " + actionJson, e);
+            }
         }
     }
 
     public static void main(String[] args) throws Exception {
         try {
-            GameRemoteImpl impl = new GameRemoteImpl();
+            int cores = Runtime.getRuntime().availableProcessors();
+            MatchRegistry registry = new MatchRegistry(cores * 16, cores, cores * 4);
+            // -Dgame.config=path lets ops retune a running server by editing the file
+            ConfigWatcher config = ConfigWatcher.fromSystemProperties();
+            registry.setRules(() -> config.get().getRules());
+            registry.start();
+
+            GameRemoteImpl impl = new GameRemoteImpl(registry);
             Registry reg = LocateRegistry.createRegistry(1099);
             reg.rebind("PenaltyGameRemote", impl);
             System.out.println("RMI GameRemote bound. Ready.");
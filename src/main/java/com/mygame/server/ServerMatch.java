@@ -0,0 +1,185 @@
+package com.mygame.server;
+
+import com.mygame.engine.InputBits;
+import com.mygame.engine.MatchRules;
+import com.mygame.engine.MatchState;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One authoritative match hosted by the server.
+ *
+ * Threading: the engine state is only touched by the tick thread of the shard
+ * that owns the match. RMI threads write the latest held keys of their seat
+ * (one volatile int each) and read the immutable snapshot published after every tick.
+ * The last {@link #HISTORY} snapshots are kept so clients can get deltas against
+ * whatever tick they acknowledged last. Subscribers get the same frames pushed
+ * after each tick (see {@link Subscription}).
+ */
+public class ServerMatch {
+
+    // ~1 s at 60 UPS; clients further behind get a full frame
+    static final int HISTORY = 64;
+
+    private final String matchId;
+    private final String player1Id;
+    private final String player2Id;
+    private final MatchState state;
+    private final InputBits input = new InputBits();
+
+    private volatile int p1Keys;
+    private volatile int p2Keys;
+    private volatile MatchSnapshot snapshot;
+    private final AtomicReferenceArray<MatchSnapshot> history = new AtomicReferenceArray<>(HISTORY);
+
+    // Most spectators ask for the same frames, so the last encodings are shared
+    private volatile EncodedFrame lastFull;
+    private volatile EncodedFrame lastDelta;
+
+    private final Executor pushExecutor;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private long tick = 0;
+    private long ticksSinceOver = 0;
+    // Set by setKeys, taken by the tick thread to restart the idle count
+    private volatile boolean inputSeen;
+    private long ticksIdle = 0;
+
+    ServerMatch(String matchId, String player1Id, String player2Id, Executor pushExecutor) {
+        this.matchId = matchId;
+        this.pushExecutor = pushExecutor;
+        this.player1Id = player1Id;
+        this.player2Id = player2Id;
+        this.state = MatchState.newMatch(player1Id, player2Id);
+        publish(MatchSnapshot.of(matchId, tick, state));
+    }
+
+    /**
+     * Stores the keys a seat currently holds; applied on the next tick.
+     */
+    void setKeys(int seat, int keys) {
+        if (seat == 1) p1Keys = keys & InputBits.MASK;
+        else p2Keys = keys & InputBits.MASK;
+        inputSeen = true;
+    }
+
+    /**
+     * Advances the match by one tick. Only called by the owning shard's tick thread.
+     */
+    void tick(MatchRules rules) {
+        if (inputSeen) {
+            inputSeen = false;
+            ticksIdle = 0;
+        } else {
+            ticksIdle++;
+        }
+        if (state.isOver()) {
+            ticksSinceOver++;
+            return;
+        }
+        state.setRules(rules);
+        input.set(1, p1Keys);
+        input.set(2, p2Keys);
+        state.update(input);
+        tick++;
+        publish(MatchSnapshot.of(matchId, tick, state));
+        for (Subscription sub : subscriptions) {
+            sub.onTick();
+        }
+    }
+
+    private void publish(MatchSnapshot s) {
+        history.set((int) (s.getTick() % HISTORY), s);
+        snapshot = s;
+    }
+
+    /**
+     * Binary state for a client that last applied {@code ackedTick}: a delta if that
+     * tick is still in the history, otherwise a full frame (see {@link SnapshotCodec}).
+     */
+    byte[] encodeSince(long ackedTick) {
+        return encode(snapshot, ackedTick);
+    }
+
+    byte[] encode(MatchSnapshot current, long ackedTick) {
+        MatchSnapshot base = null;
+        if (ackedTick >= 0 && ackedTick <= current.getTick()) {
+            MatchSnapshot s = history.get((int) (ackedTick % HISTORY));
+            if (s != null && s.getTick() == ackedTick) base = s;
+        }
+
+        if (base == null) {
+            EncodedFrame full = lastFull;
+            if (full == null || full.tick != current.getTick()) {
+                full = new EncodedFrame(-1, current.getTick(), SnapshotCodec.encodeFull(current));
+                lastFull = full;
+            }
+            return full.bytes;
+        }
+
+        EncodedFrame delta = lastDelta;
+        if (delta == null || delta.tick != current.getTick() || delta.baseTick != ackedTick) {
+            delta = new EncodedFrame(ackedTick, current.getTick(), SnapshotCodec.encodeDelta(base, current));
+            lastDelta = delta;
+        }
+        return delta.bytes;
+    }
+
+    void subscribe(RmiGameServer.StateListener listener) {
+        Subscription sub = new Subscription(this, listener, pushExecutor);
+        subscriptions.add(sub);
+        sub.onTick(); // Start with the current state
+    }
+
+    void unsubscribe(RmiGameServer.StateListener listener) {
+        for (Subscription sub : subscriptions) {
+            if (sub.getListener().equals(listener)) {
+                sub.cancel();
+                subscriptions.remove(sub);
+            }
+        }
+    }
+
+    void close() {
+        for (Subscription sub : subscriptions) sub.cancel();
+        subscriptions.clear();
+    }
+
+    /**
+     * True once the match has been over for longer than {@code graceTicks}
+     * (clients had time to fetch the final state), or neither player has sent
+     * input for longer than {@code idleTicks} (the match was abandoned).
+     */
+    boolean isExpired(long graceTicks, long idleTicks) {
+        return ticksSinceOver > graceTicks || ticksIdle > idleTicks;
+    }
+
+    /**
+     * Whether the last published state is a finished match; safe from any thread.
+     */
+    boolean isOver() {
+        return snapshot.isOver();
+    }
+
+    public String getMatchId() { return matchId; }
+    public String getPlayer1Id() { return player1Id; }
+    public String getPlayer2Id() { return player2Id; }
+    public MatchSnapshot getSnapshot() { return snapshot; }
+    public long getTick() { return tick; }
+
+    // Encoded bytes are never mutated after creation, so callers may share them
+    private static final class EncodedFrame {
+        final long baseTick;
+        final long tick;
+        final byte[] bytes;
+
+        EncodedFrame(long baseTick, long tick, byte[] bytes) {
+            this.baseTick = baseTick;
+            this.tick = tick;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.mygame.server;
+
+import com.mygame.engine.Direction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of {@link MatchSnapshot}s.
+ *
+ * Every snapshot is reduced to {@link #FIELD_COUNT} small quantized integers
+ * (positions in 1/8 px, velocities in 1/1024 px/tick, power in 1/10000).
+ *
+ * Full frame:  [0][tick:8][p1 name][p2 name][all fields]
+ * Delta frame: [1][baseTick:8][tick:8][changed mask:4][changed fields]
+ *
+ * Names are length-prefixed UTF-8 and only sent in full frames. A delta against
+ * the previous tick is usually a handful of bytes; a full frame is under 50 bytes
+ * plus the names.
+ */
+public final class SnapshotCodec {
+
+    public static final byte FULL = 0;
+    public static final byte DELTA = 1;
+
+    // Field indexes
+    static final int ROUND = 0, KICKER = 1, FLAGS = 2;
+    static final int P1 = 3, P2 = 9;                 // x, y, anim, score, directions, power
+    static final int BALL_X = 15, BALL_Y = 16, BALL_VX = 17, BALL_VY = 18, BALL_ANIM = 19;
+    public static final int FIELD_COUNT = 20;
+
+    // Bytes per field on the wire
+    private static final int[] WIDTH = {
+            1, 1, 1,
+            2, 2, 1, 1, 1, 2,
+            2, 2, 1, 1, 1, 2,
+            2, 2, 2, 2, 1
+    };
+
+    // Flag bits
+    static final int AWAITING_INPUT = 1, AWAITING_POWER = 1 << 1, OVER = 1 << 2,
+                     BALL_MOVING = 1 << 3, P1_STRIKER = 1 << 4, P2_STRIKER = 1 << 5;
+
+    private static final int POS_SCALE = 8;
+    private static final int VEL_SCALE = 1024;
+    private static final int POWER_SCALE = 10_000;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
+
+    private SnapshotCodec() {
+    }
+
+    /**
+     * Quantized value of one field of a snapshot.
+     */
+    static int field(MatchSnapshot s, int i) {
+        switch (i) {
+            case ROUND: return s.getRound();
+            case KICKER: return s.getKickerId();
+            case FLAGS:
+                int flags = 0;
+                if (s.isAwaitingInput()) flags |= AWAITING_INPUT;
+                if (s.isAwaitingPowerConfirmation()) flags |= AWAITING_POWER;
+                if (s.isOver()) flags |= OVER;
+                if (s.isBallMoving()) flags |= BALL_MOVING;
+                if (s.getPlayer1().isStriker()) flags |= P1_STRIKER;
+                if (s.getPlayer2().isStriker()) flags |= P2_STRIKER;
+                return flags;
+            case BALL_X: return pos(s.getBallX());
+            case BALL_Y: return pos(s.getBallY());
+            case BALL_VX: return (int) Math.round(s.getBallVx() * VEL_SCALE);
+            case BALL_VY: return (int) Math.round(s.getBallVy() * VEL_SCALE);
+            case BALL_ANIM: return s.getBallAnimIndex();
+            default:
+                MatchSnapshot.PlayerView p = (i < P2) ? s.getPlayer1() : s.getPlayer2();
+                switch (i - ((i < P2) ? P1 : P2)) {
+                    case 0: return pos(p.getX());
+                    case 1: return pos(p.getY());
+                    case 2: return p.getAnimIndex();
+                    case 3: return p.getScore();
+                    case 4: return p.getSelection() | (p.getChosen() << 2);
+                    default: return (int) Math.round(p.getPower() * POWER_SCALE);
+                }
+        }
+    }
+
+    private static int pos(double v) {
+        return (int) Math.round(v * POS_SCALE);
+    }
+
+    /**
+     * Full frame carrying every field.
+     */
+    public static byte[] encodeFull(MatchSnapshot s) {
+        ByteBuffer buf = scratch();
+        buf.put(FULL).putLong(s.getTick());
+        putName(buf, s.getPlayer1().getName());
+        putName(buf, s.getPlayer2().getName());
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            putField(buf, i, field(s, i));
+        }
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    /**
+     * Delta frame with only the fields that differ from {@code base}.
+     */
+    public static byte[] encodeDelta(MatchSnapshot base, MatchSnapshot s) {
+        ByteBuffer buf = scratch();
+        buf.put(DELTA).putLong(base.getTick()).putLong(s.getTick());
+        int maskAt = buf.position();
+        buf.putInt(0);
+        int mask = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            int v = field(s, i);
+            if (v != field(base, i)) {
+                mask |= 1 << i;
+                putField(buf, i, v);
+            }
+        }
+        buf.putInt(maskAt, mask);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    private static ByteBuffer scratch() {
+        ByteBuffer buf = SCRATCH.get();
+        buf.clear();
+        return buf;
+    }
+
+    private static void putName(ByteBuffer buf, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(bytes.length, 255);
+        buf.put((byte) len).put(bytes, 0, len);
+    }
+
+    // Clamps to what the field's width can carry, so an out-of-range value
+    // saturates instead of wrapping around to a wrong one
+    private static void putField(ByteBuffer buf, int i, int v) {
+        if (WIDTH[i] == 1) buf.put((byte) Math.max(0, Math.min(0xFF, v)));
+        else buf.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, v)));
+    }
+
+    private static int getField(ByteBuffer buf, int i) {
+        if (WIDTH[i] == 1) return buf.get() & 0xFF;
+        // Signed: positions and velocities can be negative
+        return buf.getShort();
+    }
+
+    /**
+     * Client-side view rebuilt from full and delta frames.
+     * Keeps the last decoded state so deltas can be applied in place.
+     */
+    public static final class Decoder {
+        private final int[] fields = new int[FIELD_COUNT];
+        private String p1Name = "", p2Name = "";
+        private long tick = -1;
+
+        /**
+         * Applies a frame from {@code getStateSince}.
+         * @return false if it was a delta against a tick this decoder does not hold
+         */
+        public boolean apply(byte[] frame) {
+            ByteBuffer buf = ByteBuffer.wrap(frame);
+            byte kind = buf.get();
+            if (kind == FULL) {
+                tick = buf.getLong();
+                p1Name = readName(buf);
+                p2Name = readName(buf);
+                for (int i = 0; i < FIELD_COUNT; i++) fields[i] = getField(buf, i);
+                return true;
+            }
+            long baseTick = buf.getLong();
+            if (baseTick != tick) return false;
+            tick = buf.getLong();
+            int mask = buf.getInt();
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                if ((mask & (1 << i)) != 0) fields[i] = getField(buf, i);
+            }
+            return true;
+        }
+
+        private static String readName(ByteBuffer buf) {
+            int len = buf.get() & 0xFF;
+            String name = new String(buf.array(), buf.position(), len, StandardCharsets.UTF_8);
+            buf.position(buf.position() + len);
+            return name;
+        }
+
+        private int player(int playerId) { return playerId == 1 ? P1 : P2; }
+
+        public long getTick() { return tick; }
+        public int getRound() { return fields[ROUND]; }
+        public int getKickerId() { return fields[KICKER]; }
+        public boolean isAwaitingInput() { return (fields[FLAGS] & AWAITING_INPUT) != 0; }
+        public boolean isAwaitingPowerConfirmation() { return (fields[FLAGS] & AWAITING_POWER) != 0; }
+        public boolean isOver() { return (fields[FLAGS] & OVER) != 0; }
+        public boolean isBallMoving() { return (fields[FLAGS] & BALL_MOVING) != 0; }
+        public double getBallX() { return (double) fields[BALL_X] / POS_SCALE; }
+        public double getBallY() { return (double) fields[BALL_Y] / POS_SCALE; }
+        public double getBallVx() { return (double) fields[BALL_VX] / VEL_SCALE; }
+        public double getBallVy() { return (double) fields[BALL_VY] / VEL_SCALE; }
+        public int getBallAnimIndex() { return fields[BALL_ANIM]; }
+
+        public String getName(int playerId) { return playerId == 1 ? p1Name : p2Name; }
+        public boolean isStriker(int playerId) { return (fields[FLAGS] & (playerId == 1 ? P1_STRIKER : P2_STRIKER)) != 0; }
+        public double getX(int playerId) { return (double) fields[player(playerId)] / POS_SCALE; }
+        public double getY(int playerId) { return (double) fields[player(playerId) + 1] / POS_SCALE; }
+        public int getAnimIndex(int playerId) { return fields[player(playerId) + 2]; }
+        public int getScore(int playerId) { return fields[player(playerId) + 3]; }
+        public Direction getSelection(int playerId) { return DIRECTIONS[fields[player(playerId) + 4] & 3]; }
+        public Direction getChosen(int playerId) { return DIRECTIONS[(fields[player(playerId) + 4] >> 2) & 3]; }
+        public double getPower(int playerId) { return (double) fields[player(playerId) + 5] / POWER_SCALE; }
+    }
+}
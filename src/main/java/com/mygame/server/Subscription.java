@@ -0,0 +1,68 @@
+package com.mygame.server;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One client streaming a match's state.
+ *
+ * At most one push per subscriber is in flight. Ticks that complete while a
+ * push is still being delivered are not queued: the next push simply carries
+ * the latest snapshot as a delta against the last one the client received,
+ * so a slow consumer skips frames instead of building up a backlog.
+ */
+class Subscription {
+
+    private final ServerMatch match;
+    private final RmiGameServer.StateListener listener;
+    private final Executor pushExecutor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private volatile long deliveredTick = -1;
+    private volatile boolean cancelled = false;
+
+    Subscription(ServerMatch match, RmiGameServer.StateListener listener, Executor pushExecutor) {
+        this.match = match;
+        this.listener = listener;
+        this.pushExecutor = pushExecutor;
+    }
+
+    /**
+     * Called by the tick thread after a new snapshot was published. Never blocks.
+     */
+    void onTick() {
+        if (!cancelled && scheduled.compareAndSet(false, true)) {
+            pushExecutor.execute(this::push);
+        }
+    }
+
+    private void push() {
+        try {
+            MatchSnapshot current = match.getSnapshot();
+            while (!cancelled && current.getTick() != deliveredTick) {
+                listener.onState(match.encode(current, deliveredTick));
+                deliveredTick = current.getTick();
+                current = match.getSnapshot();
+            }
+        } catch (RemoteException e) {
+            // Client is gone; stop streaming to it
+            System.err.println("Dropping subscriber of " + match.getMatchId() + ": " + e.getMessage());
+            match.unsubscribe(listener);
+        } finally {
+            scheduled.set(false);
+        }
+        // A tick may have landed between the last check and clearing the flag
+        if (!cancelled && match.getSnapshot().getTick() != deliveredTick) {
+            onTick();
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    RmiGameServer.StateListener getListener() {
+        return listener;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mygame.sim;
+
+/**
+ * The balance knobs from the {@code <difficulty>} and {@code <ball>} blocks of config.xml
+ * that drive the simulator bots.
+ */
+public final class Difficulty {
+
+    /** Values shipped in config.xml. */
+    public static final Difficulty DEFAULT = new Difficulty(1.2, 3500, 5, 20);
+
+    private final double keeperReaction;   // seconds the keeper needs to read the striker
+    private final int maxTimeToShoot;      // milliseconds the striker may take
+    private final int minPower;            // slowest accepted shot speed (px/tick)
+    private final int maxPower;            // fastest accepted shot speed (px/tick)
+
+    public Difficulty(double keeperReaction, int maxTimeToShoot, int minPower, int maxPower) {
+        if (keeperReaction < 0 || maxTimeToShoot <= 0 || minPower > maxPower) {
+            throw new IllegalArgumentException("Invalid difficulty: " + keeperReaction + "s, "
+                    + maxTimeToShoot + "ms, power " + minPower + ".." + maxPower);
+        }
+        this.keeperReaction = keeperReaction;
+        this.maxTimeToShoot = maxTimeToShoot;
+        this.minPower = minPower;
+        this.maxPower = maxPower;
+    }
+
+    public double getKeeperReaction() { return keeperReaction; }
+    public int getMaxTimeToShoot() { return maxTimeToShoot; }
+    public int getMinPower() { return minPower; }
+    public int getMaxPower() { return maxPower; }
+
+    @Override
+    public String toString() {
+        return String.format("keeperReaction=%.2fs maxTimeToShoot=%dms power=%d..%d",
+                keeperReaction, maxTimeToShoot, minPower, maxPower);
+    }
+}
@@ -0,0 +1,254 @@
+package com.mygame.sim;
+
+import com.mygame.config.ConfigLoader;
+import com.mygame.config.GameConfig;
+import com.mygame.engine.Ball;
+import com.mygame.engine.Direction;
+import com.mygame.engine.InputBits;
+import com.mygame.engine.InputFrame;
+import com.mygame.engine.MatchListener;
+import com.mygame.engine.MatchRules;
+import com.mygame.engine.MatchState;
+import com.mygame.engine.Player;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Batch Monte Carlo runner: plays seeded bot-vs-bot shootouts through the real
+ * {@link MatchState} rules on a fork-join pool and reports goal probabilities.
+ *
+ * Bot model per turn:
+ *  - the striker highlights a random direction on the first tick, plans to shoot
+ *    at a random time within maxTimeToShoot, and then waits until the power bar
+ *    gives a shot speed inside [minPower, maxPower] (or the time runs out);
+ *    it never shoots so softly that the ball stays on the pitch, whatever the
+ *    config says;
+ *  - the keeper reads the highlighted direction once keeperReaction has elapsed,
+ *    otherwise it has to guess when the striker shoots.
+ *
+ * Usage: ShootoutSimulator [shootoutsPerConfig] [seed] [threads]
+ * The rules and shot power range come from config.xml (-Dgame.config=path
+ * for another file); the sweep varies keeper reaction and shooting time.
+ */
+public class ShootoutSimulator {
+
+    private static final int TICKS_PER_SEC = MatchState.TICKS_PER_SECOND;
+    private static final Direction[] SHOT_DIRECTIONS = { Direction.LEFT, Direction.CENTER, Direction.RIGHT };
+
+    // Shootouts a single fork-join leaf plays with its own RNG
+    private static final int LEAF_SIZE = 256;
+    // A shot in flight longer than this means the engine let a ball stall
+    private static final int MAX_FLIGHT_TICKS = 60 * TICKS_PER_SEC;
+
+    private final ForkJoinPool pool;
+    private final MatchRules rules;
+
+    public ShootoutSimulator(ForkJoinPool pool) {
+        this(pool, MatchRules.DEFAULT);
+    }
+
+    public ShootoutSimulator(ForkJoinPool pool, MatchRules rules) {
+        this.pool = pool;
+        this.rules = rules;
+    }
+
+    public static void main(String[] args) {
+        long shootouts = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        GameConfig config = loadConfig();
+
+        ShootoutSimulator sim = new ShootoutSimulator(new ForkJoinPool(threads), config.getRules());
+        double[] reactions = { 0.6, 0.9, 1.2, 1.5, 1.8 };
+        int[] shootTimes = { 2000, 3500, 5000 };
+
+        long start = System.nanoTime();
+        for (double reaction : reactions) {
+            for (int shootTime : shootTimes) {
+                Difficulty d = new Difficulty(reaction, shootTime,
+                        config.getMinPower(), config.getMaxPower());
+                sim.run(d, shootouts, seed).print(System.out);
+                System.out.println();
+            }
+        }
+        System.out.printf("Sweep of %d configs x %d shootouts took %.1fs on %d thread(s)%n",
+                reactions.length * shootTimes.length, shootouts,
+                (System.nanoTime() - start) / 1e9, threads);
+    }
+
+    private static GameConfig loadConfig() {
+        String path = System.getProperty("game.config");
+        try {
+            return path != null ? ConfigLoader.load(Paths.get(path)) : ConfigLoader.loadDefault();
+        } catch (IOException e) {
+            System.err.println("Using built-in game config: " + e.getMessage());
+            return GameConfig.DEFAULT;
+        }
+    }
+
+    /**
+     * Plays {@code shootouts} full matches with the given difficulty.
+     * The result only depends on the seed, not on the number of threads.
+     */
+    public ShootoutStats run(Difficulty difficulty, long shootouts, long seed) {
+        ShootoutStats stats = new ShootoutStats(difficulty);
+        pool.invoke(new Batch(difficulty, rules, stats, seed, 0, shootouts));
+        return stats;
+    }
+
+    private static final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Difficulty difficulty;
+        private final MatchRules rules;
+        private final ShootoutStats stats;
+        private final long seed;
+        private final long from, to;
+
+        Batch(Difficulty difficulty, MatchRules rules, ShootoutStats stats, long seed, long from, long to) {
+            this.difficulty = difficulty;
+            this.rules = rules;
+            this.stats = stats;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                // Seed per leaf, derived from its position, so results are reproducible
+                SplittableRandom rng = new SplittableRandom(seed ^ (from * 0x9E3779B97F4A7C15L));
+                ShootoutStats.Tally tally = new ShootoutStats.Tally();
+                Bots bots = new Bots(difficulty, rules, rng, tally);
+                for (long i = from; i < to; i++) {
+                    bots.playShootout();
+                }
+                stats.publish(tally);
+                return;
+            }
+            long mid = (from + to) >>> 1;
+            invokeAll(new Batch(difficulty, rules, stats, seed, from, mid),
+                      new Batch(difficulty, rules, stats, seed, mid, to));
+        }
+    }
+
+    /**
+     * Drives one worker's matches; reused for every shootout of a leaf.
+     */
+    private static final class Bots implements MatchListener {
+        private final SplittableRandom rng;
+        private final ShootoutStats.Tally tally;
+        private final InputBits input = new InputBits();
+        private final MatchRules rules;
+        private final int reactionTicks;
+        private final int maxShootTicks;
+        private final double minShotPower;
+        private final double maxShotPower;
+        // Weakest shot that leaves the pitch, for the last two kick spots seen
+        private double spotX = Double.NaN, spotY, spotPower;
+        private double otherX = Double.NaN, otherY, otherPower;
+
+        Bots(Difficulty difficulty, MatchRules rules, SplittableRandom rng, ShootoutStats.Tally tally) {
+            this.rules = rules;
+            this.rng = rng;
+            this.tally = tally;
+            this.reactionTicks = (int) Math.round(difficulty.getKeeperReaction() * TICKS_PER_SEC);
+            this.maxShootTicks = Math.max(1, difficulty.getMaxTimeToShoot() * TICKS_PER_SEC / 1000);
+            this.minShotPower = difficulty.getMinPower() / rules.getBallSpeed();
+            this.maxShotPower = difficulty.getMaxPower() / rules.getBallSpeed();
+        }
+
+        void playShootout() {
+            MatchState match = MatchState.newMatch("Bot 1", "Bot 2");
+            match.setListener(this);
+            match.setRules(rules);
+            while (!match.isOver()) {
+                playTurn(match);
+                // Let the ball fly out and the roles swap
+                for (int t = 0; !match.isAwaitingInput() && !match.isOver(); t++) {
+                    if (t == MAX_FLIGHT_TICKS) {
+                        throw new IllegalStateException("Ball still moving after " + t + " ticks");
+                    }
+                    match.update(InputFrame.NONE);
+                }
+            }
+            tally.shootouts++;
+        }
+
+        private void playTurn(MatchState match) {
+            Direction shot = SHOT_DIRECTIONS[rng.nextInt(SHOT_DIRECTIONS.length)];
+            Direction guess = SHOT_DIRECTIONS[rng.nextInt(SHOT_DIRECTIONS.length)];
+            int plannedTick = 1 + rng.nextInt(maxShootTicks);
+
+            Player striker = match.getStriker();
+            Player keeper = match.getKeeper();
+            // Out of time, the striker still waits for a shot that reaches the goal
+            double floor = Math.min(1.0, Math.max(minShotPower,
+                    exitPower(match.getBall().getX(), match.getBall().getY())));
+            int tick = 0;
+
+            while (match.isAwaitingInput()) {
+                tick++;
+                int strikerBits = InputBits.of(shot);
+                double power = striker.getCurrentPower();
+                boolean inRange = power >= floor && power <= maxShotPower;
+                boolean shooting = tick >= plannedTick && (inRange || (tick >= maxShootTicks && power >= floor));
+                if (shooting) strikerBits |= InputBits.CONFIRM;
+
+                int keeperBits = 0;
+                if (keeper.getChosenDirection() == Direction.NONE) {
+                    Direction seen = striker.getDirectionSelection();
+                    if (tick > reactionTicks && seen != Direction.NONE) {
+                        keeperBits = InputBits.of(seen) | InputBits.CONFIRM;
+                    } else if (shooting) {
+                        keeperBits = InputBits.of(guess) | InputBits.CONFIRM;
+                    }
+                }
+
+                input.set(striker.getPlayerId(), strikerBits);
+                input.set(keeper.getPlayerId(), keeperBits);
+                match.update(input);
+            }
+        }
+
+        // The weakest power that still carries the ball off the top of the pitch
+        // from (x, y), or above 1 if none does; a side shot, the slowest upwards
+        private double exitPower(double x, double y) {
+            if (x == spotX && y == spotY) return spotPower;
+            if (x == otherX && y == otherY) return otherPower;
+            double lo = 0, hi = 1;
+            if (!leavesPitch(x, y, hi)) {
+                hi = Double.POSITIVE_INFINITY;
+            } else {
+                for (int i = 0; i < 20; i++) {
+                    double mid = (lo + hi) / 2;
+                    if (leavesPitch(x, y, mid)) hi = mid;
+                    else lo = mid;
+                }
+            }
+            otherX = spotX; otherY = spotY; otherPower = spotPower;
+            spotX = x; spotY = y; spotPower = hi;
+            return hi;
+        }
+
+        private boolean leavesPitch(double x, double y, double power) {
+            Ball ball = new Ball(x, y);
+            ball.shoot(Direction.LEFT, power, rules.getBallSpeed());
+            while (ball.isMoving()) ball.tick();
+            return ball.getY() < Ball.OUT_TOP_Y;
+        }
+
+        @Override
+        public void onShotResolved(Player striker, Player keeper, Direction shot, Direction dive,
+                                   double power, boolean goal) {
+            int cell = ShootoutStats.cell(shot, power);
+            tally.shots[cell]++;
+            if (goal) tally.goals[cell]++;
+        }
+    }
+}
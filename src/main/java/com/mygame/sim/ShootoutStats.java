@@ -0,0 +1,95 @@
+package com.mygame.sim;
+
+import com.mygame.engine.Direction;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shot/goal counters per (shot direction, power bucket), shared by all workers.
+ * Workers count into a private {@link Tally} and publish it once per batch,
+ * so the shared cells are only touched through {@link LongAdder}s, never locked.
+ */
+public final class ShootoutStats {
+
+    public static final int POWER_BUCKETS = 5;
+    private static final Direction[] DIRECTIONS = { Direction.LEFT, Direction.CENTER, Direction.RIGHT };
+
+    private final Difficulty difficulty;
+    private final LongAdder[] shots = newCells();
+    private final LongAdder[] goals = newCells();
+    private final LongAdder shootouts = new LongAdder();
+
+    public ShootoutStats(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    private static LongAdder[] newCells() {
+        LongAdder[] cells = new LongAdder[DIRECTIONS.length * POWER_BUCKETS];
+        for (int i = 0; i < cells.length; i++) cells[i] = new LongAdder();
+        return cells;
+    }
+
+    static int cell(Direction dir, double power) {
+        int bucket = Math.min(POWER_BUCKETS - 1, (int) (power * POWER_BUCKETS));
+        return dir.ordinal() * POWER_BUCKETS + Math.max(0, bucket);
+    }
+
+    void publish(Tally tally) {
+        for (int i = 0; i < tally.shots.length; i++) {
+            if (tally.shots[i] != 0) shots[i].add(tally.shots[i]);
+            if (tally.goals[i] != 0) goals[i].add(tally.goals[i]);
+        }
+        shootouts.add(tally.shootouts);
+    }
+
+    public Difficulty getDifficulty() { return difficulty; }
+    public long getShootouts() { return shootouts.sum(); }
+
+    public long getShots(Direction dir, int powerBucket) {
+        return shots[dir.ordinal() * POWER_BUCKETS + powerBucket].sum();
+    }
+
+    public long getGoals(Direction dir, int powerBucket) {
+        return goals[dir.ordinal() * POWER_BUCKETS + powerBucket].sum();
+    }
+
+    public double getGoalRate() {
+        long s = 0, g = 0;
+        for (int i = 0; i < shots.length; i++) {
+            s += shots[i].sum();
+            g += goals[i].sum();
+        }
+        return s == 0 ? 0 : (double) g / s;
+    }
+
+    /**
+     * Prints goal probability per direction (rows) and power bucket (columns).
+     */
+    public void print(PrintStream out) {
+        out.printf("%s | %d shootouts | goal rate %.1f%%%n", difficulty, getShootouts(), getGoalRate() * 100);
+        out.print("          ");
+        for (int b = 0; b < POWER_BUCKETS; b++) {
+            out.printf("  %.1f-%.1f", (double) b / POWER_BUCKETS, (double) (b + 1) / POWER_BUCKETS);
+        }
+        out.println();
+        for (Direction dir : DIRECTIONS) {
+            out.printf("%-10s", dir);
+            for (int b = 0; b < POWER_BUCKETS; b++) {
+                long s = getShots(dir, b);
+                if (s == 0) out.print("        - ");
+                else out.printf("   %5.1f%% ", 100.0 * getGoals(dir, b) / s);
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * Plain per-worker counters, never shared between threads.
+     */
+    static final class Tally {
+        final long[] shots = new long[DIRECTIONS.length * POWER_BUCKETS];
+        final long[] goals = new long[DIRECTIONS.length * POWER_BUCKETS];
+        long shootouts;
+    }
+}
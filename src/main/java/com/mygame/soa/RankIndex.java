@@ -0,0 +1,212 @@
+package com.mygame.soa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Players ordered by wins (most first, then by name), with rank queries.
+ *
+ * A treap whose nodes know their subtree size, so adding a win, finding a
+ * player's rank and finding the player at a rank are all O(log n), and a
+ * run of m consecutive ranks costs O(log n + m); nothing is ever sorted.
+ * Readers share a read lock; updates take the write lock.
+ *
+ * Ranks start at 1 and are positions in the order, so players with equal
+ * wins get consecutive ranks in name order.
+ */
+public class RankIndex {
+
+    public record Ranked(int rank, String player, int wins) { }
+
+    private static final class Node {
+        final String player;
+        final int wins;
+        final int priority;
+        Node left, right;
+        int size = 1;
+
+        Node(String player, int wins, int priority) {
+            this.player = player;
+            this.wins = wins;
+            this.priority = priority;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> wins = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom(); // write lock only
+    private Node root;
+
+    /**
+     * Adds a player with no wins, if not yet known.
+     */
+    public void register(String player) {
+        lock.writeLock().lock();
+        try {
+            if (wins.putIfAbsent(player, 0) == null) root = insert(root, new Node(player, 0, random.nextInt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Credits the player with one more win.
+     * @return the player's new win count
+     */
+    public int addWin(String player) {
+        lock.writeLock().lock();
+        try {
+            Integer old = wins.get(player);
+            if (old != null) root = remove(root, old, player);
+            int now = old == null ? 1 : old + 1;
+            wins.put(player, now);
+            root = insert(root, new Node(player, now, random.nextInt()));
+            return now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the player's rank and wins, or null for an unknown player
+     */
+    public Ranked rankOf(String player) {
+        lock.readLock().lock();
+        try {
+            Integer w = wins.get(player);
+            if (w == null) return null;
+            int before = 0;
+            for (Node t = root; t != null; ) {
+                int c = compare(w, player, t);
+                if (c < 0) {
+                    t = t.left;
+                } else if (c > 0) {
+                    before += size(t.left) + 1;
+                    t = t.right;
+                } else {
+                    before += size(t.left);
+                    break;
+                }
+            }
+            return new Ranked(before + 1, player, w);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The players ranked {@code from} to {@code to}, inclusive; ranks outside
+     * the board are left out.
+     */
+    public List<Ranked> range(int from, int to) {
+        lock.readLock().lock();
+        try {
+            int lo = Math.max(1, from) - 1;
+            int hi = Math.min(size(root), to); // exclusive, 0-based
+            List<Ranked> out = new ArrayList<>(Math.max(0, hi - lo));
+            if (lo < hi) collect(root, lo, hi, 0, out);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Ranked> top(int n) {
+        return range(1, n);
+    }
+
+    // === Treap ===
+
+    // Negative if (wins, player) ranks ahead of the node
+    private static int compare(int wins, String player, Node t) {
+        if (wins != t.wins) return wins > t.wins ? -1 : 1;
+        return player.compareTo(t.player);
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static void fix(Node t) {
+        t.size = 1 + size(t.left) + size(t.right);
+    }
+
+    private static Node insert(Node t, Node n) {
+        if (t == null) return n;
+        if (compare(n.wins, n.player, t) < 0) {
+            t.left = insert(t.left, n);
+            if (t.left.priority > t.priority) return rotateRight(t);
+        } else {
+            t.right = insert(t.right, n);
+            if (t.right.priority > t.priority) return rotateLeft(t);
+        }
+        fix(t);
+        return t;
+    }
+
+    private static Node remove(Node t, int wins, String player) {
+        int c = compare(wins, player, t);
+        if (c == 0) return merge(t.left, t.right);
+        if (c < 0) {
+            t.left = remove(t.left, wins, player);
+        } else {
+            t.right = remove(t.right, wins, player);
+        }
+        fix(t);
+        return t;
+    }
+
+    // Every key of a ranks ahead of every key of b
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            fix(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        fix(b);
+        return b;
+    }
+
+    private static Node rotateRight(Node t) {
+        Node l = t.left;
+        t.left = l.right;
+        l.right = t;
+        fix(t);
+        fix(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node t) {
+        Node r = t.right;
+        t.right = r.left;
+        r.left = t;
+        fix(t);
+        fix(r);
+        return r;
+    }
+
+    // Appends the nodes at 0-based positions [from, to); offset is the position of t's first node
+    private static void collect(Node t, int from, int to, int offset, List<Ranked> out) {
+        if (t == null) return;
+        int at = offset + size(t.left);
+        if (from < at) collect(t.left, from, to, offset, out);
+        if (at >= from && at < to) out.add(new Ranked(at + 1, t.player, t.wins));
+        if (to > at + 1) collect(t.right, from, to, at + 1, out);
+    }
+}
@@ -2,15 +2,28 @@ package com.mygame.soa;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "scores")
+// Indexes serve the leaderboard's rebuild query (ORDER BY goals DESC, id)
+// and paging by time (ORDER BY played_at, id)
+@Table(name = "scores", indexes = {
+        @Index(name = "idx_scores_goals", columnList = "goals DESC, id"),
+        @Index(name = "idx_scores_played_at", columnList = "playedAt, id")
+})
 public class Score {
 
+    // A pooled sequence hands out ids without a round trip per row, which
+    // lets Hibernate batch the inserts (IDENTITY would disable batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "score_seq")
+    @SequenceGenerator(name = "score_seq", sequenceName = "score_seq", allocationSize = 50)
     private Long id;
 
+    // Set by the game client so a result delivered twice is stored once
+    @Column(unique = true, length = 36)
+    private String submissionId;
+
     @Column(nullable = false)
     private String playerName;
 
@@ -20,20 +33,46 @@ public class Score {
     private LocalDateTime playedAt;
 
     public Score() {
-        this.playedAt = LocalDateTime.now();
+        this.playedAt = now();
     }
 
     public Score(String playerName, int goals) {
         this.playerName = playerName;
         this.goals = goals;
-        this.playedAt = LocalDateTime.now();
+        this.playedAt = now();
+    }
+
+    // The column keeps microseconds; truncating here makes the entity (and
+    // copies cached from it) hold exactly what a later read returns
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Paging by playedAt needs every row to have one
+    @PrePersist
+    void defaultPlayedAt() {
+        playedAt = (playedAt == null) ? now() : playedAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Detached copy, for caches that must not see later changes to a managed entity
+    Score(Score other) {
+        this.id = other.id;
+        this.submissionId = other.submissionId;
+        this.playerName = other.playerName;
+        this.goals = other.goals;
+        this.playedAt = other.playedAt;
     }
 
     // Getters and Setters
     public Long getId() { return id; }
+    public String getSubmissionId() { return submissionId; }
+    public void setSubmissionId(String submissionId) { this.submissionId = submissionId; }
     public String getPlayerName() { return playerName; }
     public void setPlayerName(String playerName) { this.playerName = playerName; }
     public int getGoals() { return goals; }
     public void setGoals(int goals) { this.goals = goals; }
     public LocalDateTime getPlayedAt() { return playedAt; }
+
+    // Makes the score new again after its insert was rolled back
+    void clearId() { this.id = null; }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.mygame.soa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores large uploads of scores with JDBC batch inserts.
+ *
+ * Scores arrive in chunks of {@value #CHUNK_SIZE}; each chunk is one
+ * transaction that persists every row, flushes them as batched inserts and
+ * clears the persistence context, so memory stays flat however long the
+ * upload is. Scores carrying a submission id that is already stored (or
+ * appears earlier in the same upload) are reported as duplicates, not
+ * stored again.
+ */
+@Service
+public class ScoreBatchService {
+
+    // Same as hibernate.jdbc.batch_size in application.properties
+    public static final int CHUNK_SIZE = 500;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_SUBMISSION_ID_LENGTH = 36;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ScoreRepository repository;
+
+    @Autowired
+    private ScoreLeaderboard leaderboard;
+
+    private final TransactionTemplate tx;
+
+    public ScoreBatchService(PlatformTransactionManager transactionManager) {
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Validates and stores one chunk of an upload.
+     *
+     * @param firstIndex position of the chunk's first score in the upload
+     * @param seen submission ids stored so far by this upload, updated here
+     */
+    public void saveChunk(List<Score> chunk, int firstIndex, Map<String, Long> seen, BatchResult result) {
+        ItemResult[] items = new ItemResult[chunk.size()];
+        List<Score> valid = new ArrayList<>(chunk.size());
+        List<Integer> validAt = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Score score = chunk.get(i);
+            String problem = validate(score);
+            if (problem != null) {
+                items[i] = ItemResult.rejected(firstIndex + i, problem);
+            } else {
+                valid.add(score);
+                validAt.add(i);
+            }
+        }
+
+        try {
+            Long[] ids = tx.execute(status -> persist(valid, seen));
+            for (int k = 0; k < valid.size(); k++) {
+                Score score = valid.get(k);
+                int i = validAt.get(k);
+                items[i] = ids[k] != null
+                        ? ItemResult.duplicate(firstIndex + i, ids[k])
+                        : ItemResult.created(firstIndex + i, score.getId());
+                if (ids[k] != null) continue;
+                if (score.getSubmissionId() != null) seen.put(score.getSubmissionId(), score.getId());
+                leaderboard.put(score);
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            // Most likely the same submission stored concurrently by another upload;
+            // settle the chunk row by row so only the offending rows fail
+            entityManager.clear();
+            for (int k = 0; k < valid.size(); k++) {
+                int i = validAt.get(k);
+                valid.get(k).clearId();
+                items[i] = saveOne(valid.get(k), firstIndex + i, seen);
+            }
+        }
+        for (ItemResult item : items) result.add(item);
+    }
+
+    // Returns, per score, the id of the stored duplicate or null if the score was persisted
+    private Long[] persist(List<Score> scores, Map<String, Long> seen) {
+        Long[] duplicateOf = new Long[scores.size()];
+        Map<String, Long> stored = storedIds(scores, seen);
+        Map<String, Integer> inChunk = new HashMap<>();
+        for (int k = 0; k < scores.size(); k++) {
+            Score score = scores.get(k);
+            String sid = score.getSubmissionId();
+            if (sid != null) {
+                Long existing = stored.get(sid);
+                if (existing == null) existing = seen.get(sid);
+                if (existing == null && inChunk.containsKey(sid)) existing = scores.get(inChunk.get(sid)).getId();
+                if (existing != null) {
+                    duplicateOf[k] = existing;
+                    continue;
+                }
+                inChunk.put(sid, k);
+            }
+            entityManager.persist(score); // takes an id from the pooled sequence, no insert yet
+        }
+        entityManager.flush();            // the inserts, in JDBC batches
+        entityManager.clear();
+        return duplicateOf;
+    }
+
+    private Map<String, Long> storedIds(List<Score> scores, Map<String, Long> seen) {
+        List<String> lookup = new ArrayList<>();
+        for (Score score : scores) {
+            String sid = score.getSubmissionId();
+            if (sid != null && !seen.containsKey(sid)) lookup.add(sid);
+        }
+        Map<String, Long> stored = new HashMap<>();
+        if (lookup.isEmpty()) return stored;
+        for (ScoreRepository.SubmissionRef ref : repository.findBySubmissionIdIn(lookup)) {
+            stored.put(ref.getSubmissionId(), ref.getId());
+        }
+        return stored;
+    }
+
+    private ItemResult saveOne(Score score, int index, Map<String, Long> seen) {
+        try {
+            Long[] ids = tx.execute(status -> persist(List.of(score), seen));
+            if (ids[0] != null) return ItemResult.duplicate(index, ids[0]);
+            if (score.getSubmissionId() != null) seen.put(score.getSubmissionId(), score.getId());
+            leaderboard.put(score);
+            return ItemResult.created(index, score.getId());
+        } catch (DataAccessException | PersistenceException e) {
+            entityManager.clear();
+            // Lost a race with another upload of the same submission
+            Long stored = score.getSubmissionId() != null
+                    ? repository.findBySubmissionId(score.getSubmissionId()).map(Score::getId).orElse(null)
+                    : null;
+            if (stored != null) {
+                seen.put(score.getSubmissionId(), stored);
+                return ItemResult.duplicate(index, stored);
+            }
+            return ItemResult.failed(index, e.getMessage());
+        }
+    }
+
+    /**
+     * @return why the score can't be stored, or null if it can
+     */
+    static String validate(Score score) {
+        if (score == null) return "not a valid score";
+        if (score.getPlayerName() == null || score.getPlayerName().isBlank()) return "playerName is required";
+        if (score.getPlayerName().length() > MAX_NAME_LENGTH) return "playerName is too long";
+        if (score.getGoals() < 0) return "goals must not be negative";
+        if (score.getSubmissionId() != null && score.getSubmissionId().length() > MAX_SUBMISSION_ID_LENGTH) {
+            return "submissionId is too long";
+        }
+        return null;
+    }
+
+    /**
+     * Response of POST /api/scores/batch: totals plus one entry per score, in upload order.
+     */
+    public static class BatchResult {
+        private int created;
+        private int duplicates;
+        private int rejected;
+        private String error;
+        private final List<ItemResult> results = new ArrayList<>();
+
+        public void add(ItemResult item) {
+            results.add(item);
+            switch (item.getStatus()) {
+                case ItemResult.CREATED -> created++;
+                case ItemResult.DUPLICATE -> duplicates++;
+                default -> rejected++;
+            }
+        }
+
+        public int getReceived() { return results.size(); }
+        public int getCreated() { return created; }
+        public int getDuplicates() { return duplicates; }
+        public int getRejected() { return rejected; }
+        // Why the upload stopped early, if it did
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+        public List<ItemResult> getResults() { return results; }
+    }
+
+    public static class ItemResult {
+        public static final String CREATED = "created";
+        public static final String DUPLICATE = "duplicate";
+        public static final String REJECTED = "rejected";
+        public static final String FAILED = "failed";
+
+        private final int index;
+        private final String status;
+        private final Long id;
+        private final String message;
+
+        private ItemResult(int index, String status, Long id, String message) {
+            this.index = index;
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+
+        static ItemResult created(int index, Long id) { return new ItemResult(index, CREATED, id, null); }
+        static ItemResult duplicate(int index, Long id) { return new ItemResult(index, DUPLICATE, id, null); }
+        static ItemResult rejected(int index, String message) { return new ItemResult(index, REJECTED, null, message); }
+        static ItemResult failed(int index, String message) { return new ItemResult(index, FAILED, null, message); }
+
+        public int getIndex() { return index; }
+        public String getStatus() { return status; }
+        public Long getId() { return id; }
+        public String getMessage() { return message; }
+    }
+}
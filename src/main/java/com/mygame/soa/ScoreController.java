@@ -1,10 +1,28 @@
 package com.mygame.soa;
 
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/scores")
@@ -14,22 +32,170 @@ public class ScoreController {
     @Autowired
     private ScoreRepository repository;
 
+    @Autowired
+    private ScoreBatchService batchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ScoreWriteBehind writeBehind;
+
+    @Autowired
+    private ScoreLeaderboard leaderboard;
+
+    @Autowired
+    private ScoreExporter exporter;
+
+    private static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 1000;
+
     // CREATE: POST /api/scores
+    // With scores.write-behind.enabled the score is queued: 202, 429 when the queue is full,
+    // or 503 once the journal has failed
     @PostMapping
-    public Score createScore(@RequestBody Score score) {
-        return repository.save(score);
+    public ResponseEntity<Object> createScore(@RequestBody Score score) {
+        if (writeBehind.isEnabled()) return queueScore(score);
+        // A retried submission gets the score stored the first time
+        if (score.getSubmissionId() != null) {
+            return ResponseEntity.ok(repository.findBySubmissionId(score.getSubmissionId())
+                    .orElseGet(() -> saveSubmission(score)));
+        }
+        return ResponseEntity.ok(save(score));
+    }
+
+    private Score saveSubmission(Score score) {
+        try {
+            return save(score);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent retry of the same submission
+            return repository.findBySubmissionId(score.getSubmissionId()).orElseThrow(() -> e);
+        }
+    }
+
+    private Score save(Score score) {
+        Score saved = repository.save(score);
+        leaderboard.put(saved);
+        return saved;
+    }
+
+    private ResponseEntity<Object> queueScore(Score score) {
+        String problem = ScoreBatchService.validate(score);
+        if (problem != null) return ResponseEntity.badRequest().body(Map.of("error", problem));
+        try {
+            if (!writeBehind.offer(score)) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header("Retry-After", "1")
+                        .body(Map.of("error", "Score queue is full, try again shortly"));
+            }
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Score journal unavailable: " + e.getMessage()));
+        }
+        // The submission id (assigned if the client sent none) lets the client retry safely
+        return ResponseEntity.accepted().body(Map.of("status", "accepted", "submissionId", score.getSubmissionId()));
+    }
+
+    // INGEST STATUS: GET /api/scores/ingest
+    @GetMapping("/ingest")
+    public Map<String, Object> getIngestStats() {
+        return writeBehind.stats();
+    }
+
+    // BULK CREATE: POST /api/scores/batch
+    // Body is a JSON array of scores, or NDJSON (one score per line) streamed
+    // as it is read. Answers with the id or the problem of each score, in order.
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ScoreBatchService.BatchResult> createScores(InputStream body) {
+        ScoreBatchService.BatchResult result = new ScoreBatchService.BatchResult();
+        Map<String, Long> seen = new HashMap<>();
+        List<Score> chunk = new ArrayList<>(ScoreBatchService.CHUNK_SIZE);
+        int chunkStart = 0;
+        try (MappingIterator<Score> it = objectMapper.readerFor(Score.class).readValues(body)) {
+            while (true) {
+                Score score;
+                try {
+                    if (!it.hasNextValue()) break;
+                    score = it.nextValue();
+                } catch (JsonMappingException e) {
+                    score = null; // well-formed but not a score: reported, the rest still go in
+                }
+                chunk.add(score);
+                if (chunk.size() == ScoreBatchService.CHUNK_SIZE) {
+                    batchService.saveChunk(chunk, chunkStart, seen, result);
+                    chunkStart += chunk.size();
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable from here on; what came before is still stored
+            result.setError("Malformed body after " + (chunkStart + chunk.size()) + " score(s): "
+                    + e.getMessage());
+        }
+        if (!chunk.isEmpty()) batchService.saveChunk(chunk, chunkStart, seen, result);
+        return result.getError() == null
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.badRequest().body(result);
     }
 
-    // READ ALL: GET /api/scores
+    // READ ALL: GET /api/scores[?sort=id|playedAt][&limit=n][&cursor=...]
+    // One page at a time, keyset-paginated: a full page carries the next
+    // page's address in the Link and X-Next-Cursor headers
     @GetMapping
-    public List<Score> getAllScores() {
-        return repository.findAll();
+    public ResponseEntity<List<Score>> getAllScores(@RequestParam(defaultValue = "id") String sort,
+                                                    @RequestParam(defaultValue = "" + DEFAULT_PAGE) int limit,
+                                                    @RequestParam(required = false) String cursor) {
+        int size = Math.max(1, Math.min(MAX_PAGE, limit));
+        Pageable page = PageRequest.ofSize(size);
+        List<Score> scores;
+        try {
+            if ("id".equals(sort)) {
+                long after = cursor == null ? Long.MIN_VALUE : Long.parseLong(cursor);
+                scores = repository.findByIdGreaterThanOrderByIdAsc(after, page);
+            } else if ("playedAt".equals(sort)) {
+                if (cursor == null) {
+                    scores = repository.findByOrderByPlayedAtAscIdAsc(page);
+                } else {
+                    int comma = cursor.lastIndexOf(',');
+                    if (comma < 0) return ResponseEntity.badRequest().build();
+                    scores = repository.findPlayedAfter(LocalDateTime.parse(cursor.substring(0, comma)),
+                            Long.parseLong(cursor.substring(comma + 1)), page);
+                }
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (scores.size() < size) return ResponseEntity.ok(scores); // last page
+        Score last = scores.get(scores.size() - 1);
+        String next = "id".equals(sort) ? last.getId().toString() : last.getPlayedAt() + "," + last.getId();
+        String link = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", next)
+                .replaceQueryParam("limit", size)
+                .build().encode().toUriString();
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", next)
+                .header(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"")
+                .body(scores);
+    }
+
+    // EXPORT: GET /api/scores/export[?after=id]
+    // Every score as NDJSON, streamed straight from the database
+    @GetMapping("/export")
+    public void exportScores(@RequestParam(defaultValue = "0") long after,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        exporter.export(after, response.getOutputStream());
     }
     
-    // READ LEADERBOARD: GET /api/scores/top
+    // READ LEADERBOARD: GET /api/scores/top[?limit=n]
+    // Served from memory; at most scores.top.size entries
     @GetMapping("/top")
-    public List<Score> getTopScores() {
-        return repository.findTop5ByOrderByGoalsDesc();
+    public List<Score> getTopScores(@RequestParam(required = false) Integer limit) {
+        return limit == null ? leaderboard.top() : leaderboard.top(limit);
     }
 
     // READ ONE: GET /api/scores/{id}
@@ -46,7 +212,7 @@ public class ScoreController {
         return repository.findById(id).map(score -> {
             score.setGoals(scoreDetails.getGoals());
             score.setPlayerName(scoreDetails.getPlayerName());
-            return ResponseEntity.ok(repository.save(score));
+            return ResponseEntity.ok(save(score));
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -55,6 +221,7 @@ public class ScoreController {
     public ResponseEntity<Object> deleteScore(@PathVariable Long id) {
         return repository.findById(id).map(score -> {
             repository.delete(score);
+            leaderboard.remove(id);
             return ResponseEntity.ok().build();
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,74 @@
+package com.mygame.soa;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the scores table as NDJSON, one score per line in id order, for
+ * GET /api/scores/export.
+ *
+ * Rows come from a forward-only, read-only JDBC cursor and each is written
+ * out as soon as it is read, without building entities, so memory use does
+ * not depend on the size of the table.
+ */
+@Component
+public class ScoreExporter {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String SQL =
+            "select id, submission_id, player_name, goals, played_at from scores where id > ? order by id";
+
+    private final JdbcTemplate cursor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ScoreExporter(DataSource dataSource) {
+        cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * @param afterId only scores with a greater id, to resume an interrupted export
+     * @return the number of scores written
+     */
+    public long export(long afterId, OutputStream out) throws IOException {
+        long[] count = {0};
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try {
+                cursor.query(SQL, rs -> {
+                    try {
+                        json.writeStartObject();
+                        json.writeNumberField("id", rs.getLong(1));
+                        json.writeStringField("submissionId", rs.getString(2));
+                        json.writeStringField("playerName", rs.getString(3));
+                        json.writeNumberField("goals", rs.getInt(4));
+                        Timestamp playedAt = rs.getTimestamp(5);
+                        json.writeStringField("playedAt", playedAt == null ? null
+                                : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(playedAt.toLocalDateTime()));
+                        json.writeEndObject();
+                        json.writeRaw('\n');
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // client went away; closes the cursor
+                    }
+                }, afterId);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return count[0];
+    }
+}
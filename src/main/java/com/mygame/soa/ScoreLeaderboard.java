@@ -0,0 +1,137 @@
+package com.mygame.soa;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The best scores, kept in memory for GET /api/scores/top.
+ *
+ * Built from the database at startup, then kept current by {@link #put} and
+ * {@link #remove}, which every write path calls after its commit. Readers
+ * get the current immutable snapshot through one volatile read and never
+ * lock; writers serialize, build a new snapshot and swap it in.
+ *
+ * Besides the scores.top.size shown, as many again are kept in reserve so
+ * that a deleted or demoted leader can usually be replaced without asking
+ * the database. Only when the reserve runs out is the list rebuilt.
+ */
+@Component
+public class ScoreLeaderboard {
+
+    // Most goals first; of equal scores the earlier one (lower id)
+    static final Comparator<Score> ORDER =
+            Comparator.comparingInt(Score::getGoals).reversed().thenComparing(Score::getId);
+
+    @Autowired
+    private ScoreRepository repository;
+
+    @Value("${scores.top.size:5}")
+    private int size;
+
+    private int capacity;
+    private volatile Snapshot snapshot = new Snapshot(List.of(), List.of(), true);
+
+    /**
+     * @param entries up to {@code capacity} detached scores, in {@link #ORDER}
+     * @param top the first {@code size} of them, as served
+     * @param complete whether entries hold every row in the table
+     */
+    private record Snapshot(List<Score> entries, List<Score> top, boolean complete) { }
+
+    @PostConstruct
+    void init() {
+        if (size < 1) throw new IllegalArgumentException("scores.top.size must be at least 1");
+        capacity = 2 * size;
+        rebuild();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public List<Score> top() {
+        return snapshot.top();
+    }
+
+    public List<Score> top(int limit) {
+        List<Score> top = snapshot.top();
+        return limit >= top.size() ? top : top.subList(0, Math.max(0, limit));
+    }
+
+    /**
+     * Reloads the best scores from the database.
+     */
+    public synchronized void rebuild() {
+        List<Score> rows = repository.findByOrderByGoalsDescIdAsc(PageRequest.of(0, capacity));
+        List<Score> entries = new ArrayList<>(rows.size());
+        for (Score row : rows) entries.add(new Score(row));
+        publish(entries, rows.size() < capacity);
+    }
+
+    /**
+     * A score was stored, or changed; call once the change is committed.
+     */
+    public synchronized void put(Score score) {
+        Snapshot current = snapshot;
+        List<Score> old = current.entries();
+        int at = indexOf(old, score.getId());
+        if (at < 0 && !current.complete() && !old.isEmpty()
+                && ORDER.compare(score, old.get(old.size() - 1)) > 0) {
+            return; // not on the board and not good enough for it: the common case
+        }
+
+        List<Score> entries = new ArrayList<>(old.size() + 1);
+        entries.addAll(old);
+        if (at >= 0) entries.remove(at);
+        Score copy = new Score(score);
+        int pos = -Collections.binarySearch(entries, copy, ORDER) - 1;
+        // Below the last kept entry, rows we don't hold may rank ahead of it
+        if (pos < entries.size() || current.complete()) entries.add(pos, copy);
+        boolean complete = current.complete();
+        if (entries.size() > capacity) {
+            entries.remove(entries.size() - 1);
+            complete = false;
+        }
+        if (!complete && entries.size() < size) {
+            rebuild(); // a leader dropped out and the reserve is used up
+            return;
+        }
+        publish(entries, complete);
+    }
+
+    /**
+     * A score was deleted; call once the delete is committed.
+     */
+    public synchronized void remove(Long id) {
+        Snapshot current = snapshot;
+        int at = indexOf(current.entries(), id);
+        if (at < 0) return;
+        List<Score> entries = new ArrayList<>(current.entries());
+        entries.remove(at);
+        if (!current.complete() && entries.size() < size) {
+            rebuild();
+            return;
+        }
+        publish(entries, current.complete());
+    }
+
+    private void publish(List<Score> entries, boolean complete) {
+        snapshot = new Snapshot(List.copyOf(entries),
+                List.copyOf(entries.subList(0, Math.min(size, entries.size()))), complete);
+    }
+
+    private static int indexOf(List<Score> entries, Long id) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).getId().equals(id)) return i;
+        }
+        return -1;
+    }
+}
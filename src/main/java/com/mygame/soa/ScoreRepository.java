@@ -1,9 +1,35 @@
 package com.mygame.soa;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ScoreRepository extends JpaRepository<Score, Long> {
-    // Custom query to get top 5 scores
-    List<Score> findTop5ByOrderByGoalsDesc();
-}
\ No newline at end of file
+    // Best scores first, for rebuilding the leaderboard (uses idx_scores_goals)
+    List<Score> findByOrderByGoalsDescIdAsc(Pageable page);
+
+    // Keyset pages for GET /api/scores: the rows after the last one of the previous page
+    List<Score> findByIdGreaterThanOrderByIdAsc(Long id, Pageable page);
+
+    List<Score> findByOrderByPlayedAtAscIdAsc(Pageable page);
+
+    @Query("select s from Score s where s.playedAt > :playedAt or (s.playedAt = :playedAt and s.id > :id)"
+            + " order by s.playedAt, s.id")
+    List<Score> findPlayedAfter(@Param("playedAt") LocalDateTime playedAt, @Param("id") Long id, Pageable page);
+
+    Optional<Score> findBySubmissionId(String submissionId);
+
+    // Id lookup for a whole batch in one query, without loading the rows
+    List<SubmissionRef> findBySubmissionIdIn(Collection<String> submissionIds);
+
+    interface SubmissionRef {
+        String getSubmissionId();
+        Long getId();
+    }
+}
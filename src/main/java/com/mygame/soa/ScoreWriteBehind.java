@@ -0,0 +1,423 @@
+package com.mygame.soa;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind ingestion for POST /api/scores, on when
+ * scores.write-behind.enabled=true.
+ *
+ * The request thread only appends the score to the journal (if
+ * scores.write-behind.journal names one) and to a bounded queue, so the
+ * controller can answer 202 at once, 429 when the queue is full, or 503 once
+ * the journal has failed (nothing more is accepted until a restart). A single
+ * "score-writer" thread drains the queue in batches of up to
+ * {@link ScoreBatchService#CHUNK_SIZE} through {@link ScoreBatchService}, so
+ * the inserts go out as JDBC batches and resubmitted scores are recognised by
+ * their submission id. While the database is unreachable a batch is retried
+ * with backoff as the queue fills up behind it; a score the database itself
+ * refuses is retried {@value #MAX_ATTEMPTS} times, then set aside in the
+ * rejects file (the journal's name plus .rejects, as NDJSON that can be
+ * posted to /api/scores/batch) or, without a journal, logged.
+ *
+ * Every accepted score gets a submission id if it has none, so storing one
+ * twice (a crash between a commit and its checkpoint replays the journal
+ * from the checkpoint) stores it once.
+ *
+ * The journal is append-only NDJSON; the offset up to which everything is
+ * stored lives in a companion .ack file, and whatever lies past it is stored
+ * at the next startup. A "score-journal-sync" thread forces new appends to
+ * disk every scores.write-behind.sync-ms, whatever the writer is doing (it
+ * may be waiting out a database outage), so a crash of the process loses
+ * nothing and a power cut at most the scores accepted in the last interval.
+ * Once everything is stored the journal starts over.
+ */
+@Component
+public class ScoreWriteBehind {
+
+    private static final long POLL_MS = 100;
+    private static final long MIN_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long STOP_TIMEOUT_MS = 10_000;
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Autowired
+    private ScoreBatchService batchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${scores.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${scores.write-behind.capacity:65536}")
+    private int capacity;
+
+    @Value("${scores.write-behind.journal:}")
+    private String journalPath;
+
+    @Value("${scores.write-behind.sync-ms:100}")
+    private long syncMs;
+
+    private ArrayBlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Journal: appends and queue inserts happen together under appendLock,
+    // so the queue holds scores in journal order
+    private final Object appendLock = new Object();
+    private FileChannel journal;   // null without a journal
+    private Path ackFile;
+    private Path rejectsFile;      // null without a journal
+    private long journalEnd;       // guarded by appendLock
+    private long appended;         // bytes ever appended, guarded by appendLock
+    private long synced;           // appended as of the last force, sync thread only
+    private ScheduledExecutorService syncer;
+    // Set once the journal can no longer be written or forced; offer() then fails
+    private volatile IOException journalFailure;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private volatile long stored;
+    private volatile long retries;
+    private volatile long rejected;
+
+    private record Pending(Score score, long journalEnd) { }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        if (!journalPath.isBlank()) {
+            if (syncMs < 1) throw new IllegalArgumentException("scores.write-behind.sync-ms must be at least 1");
+            openJournal(Paths.get(journalPath));
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "score-journal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::sync, syncMs, syncMs, TimeUnit.MILLISECONDS);
+        }
+        writer = new Thread(this::drain, "score-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Hands a validated score to the writer, giving it a submission id if it
+     * has none.
+     * @return false if the queue is full (or shutting down); the caller should answer 429
+     * @throws IOException if the journal could not be written, now or before;
+     *         the caller should answer 503
+     */
+    public boolean offer(Score score) throws IOException {
+        IOException failure = journalFailure;
+        if (failure != null) throw new IOException("journal failed earlier (" + failure + ")", failure);
+        if (!running) return refuse();
+        if (score.getSubmissionId() == null) score.setSubmissionId(UUID.randomUUID().toString());
+        if (journal == null) {
+            if (!queue.offer(new Pending(score, 0))) return refuse();
+            accepted.incrementAndGet();
+            return true;
+        }
+        ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(score) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        synchronized (appendLock) {
+            if (queue.remainingCapacity() == 0) return refuse();
+            long pos = journalEnd;
+            try {
+                while (line.hasRemaining()) pos += journal.write(line, pos);
+            } catch (IOException e) {
+                journalFailed(e);
+                throw e;
+            }
+            appended += pos - journalEnd;
+            journalEnd = pos;
+            queue.add(new Pending(score, pos)); // only added to under this lock, so there is room
+        }
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    private boolean refuse() {
+        refused.incrementAndGet();
+        return false;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("capacity", enabled ? capacity : 0);
+        stats.put("queued", queue != null ? queue.size() : 0);
+        stats.put("accepted", accepted.get());
+        stats.put("refused", refused.get());
+        stats.put("stored", stored);
+        stats.put("retries", retries);
+        stats.put("rejected", rejected);
+        stats.put("journal", journal != null ? journalPath : null);
+        stats.put("journalError", journalFailure != null ? journalFailure.toString() : null);
+        return stats;
+    }
+
+    // === Writer thread ===
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(ScoreBatchService.CHUNK_SIZE);
+        List<Score> scores = new ArrayList<>(ScoreBatchService.CHUNK_SIZE);
+        try {
+            while (running || !queue.isEmpty()) {
+                Pending first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, ScoreBatchService.CHUNK_SIZE - 1);
+                if (journal != null) journal.force(false);
+                for (Pending p : batch) scores.add(p.score());
+                if (!store(scores)) break; // stopping with a batch unstored; the journal still has it
+                if (journal != null) checkpoint(batch.get(batch.size() - 1).journalEnd());
+                batch.clear();
+                scores.clear();
+            }
+        } catch (IOException e) {
+            journalFailed(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int left = batch.size() + queue.size();
+        if (left > 0) {
+            System.err.println("[Scores] " + left + " accepted score(s) not stored"
+                    + (journal != null ? ", they stay in the journal" : " and lost (no journal)"));
+        }
+    }
+
+    /**
+     * Stores the scores, retrying the ones that failed until they are in,
+     * were refused {@value #MAX_ATTEMPTS} times (and are rejected), or the
+     * service stops.
+     * @return true if all of them are stored or rejected
+     */
+    private boolean store(List<Score> scores) throws InterruptedException {
+        List<Score> todo = scores;
+        long backoffMs = MIN_BACKOFF_MS;
+        int attempts = 0;
+        while (true) {
+            List<Score> failed = new ArrayList<>();
+            String reason = null;
+            try {
+                ScoreBatchService.BatchResult result = new ScoreBatchService.BatchResult();
+                batchService.saveChunk(todo, 0, new HashMap<>(), result);
+                for (ScoreBatchService.ItemResult item : result.getResults()) {
+                    if (ScoreBatchService.ItemResult.FAILED.equals(item.getStatus())) {
+                        failed.add(todo.get(item.getIndex()));
+                        reason = item.getMessage();
+                    }
+                }
+                stored += result.getCreated() + result.getDuplicates();
+            } catch (RuntimeException e) {
+                // Database unreachable; the whole batch again later, however long that takes
+                failed = todo;
+            }
+            if (failed.isEmpty()) return true;
+            // Only the rows the database itself refused count against their attempts
+            if (reason != null && ++attempts >= MAX_ATTEMPTS) {
+                reject(failed, reason);
+                return true;
+            }
+            if (!running) return false;
+            retries++;
+            System.err.println("[Scores] " + failed.size() + " score(s) could not be stored, retrying in "
+                    + backoffMs + " ms");
+            Thread.sleep(backoffMs);
+            backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            for (Score score : failed) score.clearId();
+            todo = failed;
+        }
+    }
+
+    // Sets aside scores that keep failing, so they no longer hold up the queue
+    private void reject(List<Score> scores, String reason) {
+        rejected += scores.size();
+        System.err.println("[Scores] " + scores.size() + " score(s) refused " + MAX_ATTEMPTS + " times ("
+                + reason + "), " + (rejectsFile != null ? "moved to " + rejectsFile : "dropped"));
+        StringBuilder lines = new StringBuilder();
+        for (Score score : scores) {
+            score.clearId(); // from the failed attempt
+            try {
+                lines.append(objectMapper.writeValueAsString(score)).append('\n');
+            } catch (IOException e) {
+                System.err.println("[Scores] Could not write out a rejected score: " + e.getMessage());
+            }
+        }
+        if (rejectsFile == null) {
+            System.err.print(lines);
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel ch = FileChannel.open(rejectsFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+        } catch (IOException e) {
+            System.err.println("[Scores] Could not write " + rejectsFile + " (" + e.getMessage() + "):");
+            System.err.print(lines);
+        }
+    }
+
+    // === Journal ===
+
+    private void openJournal(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        ackFile = file.resolveSibling(file.getFileName() + ".ack");
+        rejectsFile = file.resolveSibling(file.getFileName() + ".rejects");
+        journal = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long head = 0;
+        if (Files.exists(ackFile)) {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(ackFile));
+            if (buf.remaining() == Long.BYTES) head = buf.getLong();
+        }
+        head = Math.max(0, Math.min(head, journal.size()));
+        recover(head);
+        journal.truncate(0);
+        journal.force(true);
+        journalEnd = 0;
+        writeAck(0);
+    }
+
+    // Stores what an earlier run accepted but did not get to store
+    private void recover(long head) throws IOException {
+        List<Score> chunk = new ArrayList<>(ScoreBatchService.CHUNK_SIZE);
+        long recovered = 0;
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                Channels.newInputStream(journal.position(head)), StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) continue;
+            try {
+                chunk.add(objectMapper.readValue(line, Score.class));
+            } catch (IOException e) {
+                continue; // a line torn by a crash
+            }
+            if (chunk.size() == ScoreBatchService.CHUNK_SIZE) {
+                recovered += storeRecovered(chunk);
+            }
+        }
+        if (!chunk.isEmpty()) recovered += storeRecovered(chunk);
+        if (recovered > 0) System.out.println("[Scores] Stored " + recovered + " score(s) left in the journal");
+    }
+
+    private int storeRecovered(List<Score> chunk) throws IOException {
+        try {
+            if (!store(chunk)) throw new IOException("Stopped before the journal was stored");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while storing the journal", e);
+        }
+        int n = chunk.size();
+        chunk.clear();
+        return n;
+    }
+
+    // Sync thread: forces whatever was appended since the last run
+    private void sync() {
+        long target;
+        synchronized (appendLock) {
+            target = appended;
+        }
+        if (target == synced || journalFailure != null) return;
+        try {
+            journal.force(false);
+            synced = target;
+        } catch (IOException e) {
+            journalFailed(e);
+        }
+    }
+
+    private void journalFailed(IOException e) {
+        if (journalFailure != null) return;
+        journalFailure = e;
+        running = false; // the writer still stores what is queued, then exits
+        System.err.println("[Scores] Journal failed, write-behind stopped: " + e);
+    }
+
+    private void checkpoint(long offset) throws IOException {
+        synchronized (appendLock) {
+            if (offset == journalEnd && queue.isEmpty()) {
+                // Everything stored: start the journal over
+                journal.truncate(0);
+                journal.force(true);
+                journalEnd = 0;
+                writeAck(0);
+                return;
+            }
+        }
+        writeAck(offset);
+    }
+
+    private void writeAck(long offset) throws IOException {
+        Path tmp = ackFile.resolveSibling(ackFile.getFileName() + ".tmp");
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES).putLong(offset);
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, ackFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, ackFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!enabled) return;
+        running = false; // refuse new scores; the writer empties the queue and exits
+        try {
+            writer.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) writer.interrupt();
+        if (syncer != null) syncer.shutdownNow();
+        try {
+            if (journal != null) journal.close();
+        } catch (IOException ignored) {
+            // forced after every batch
+        }
+    }
+}
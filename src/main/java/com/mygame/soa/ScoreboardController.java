@@ -1,44 +1,89 @@
 package com.mygame.soa;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Simple Spring Boot REST controller for scoreboard persistence.
  *
  * To run: include Spring Boot dependencies and run a SpringApplication (not included here).
  * Endpoints:
- *  POST /matchResult  { matchId, players, winner, score }
- *  GET  /leaderboard
+ *  POST /matchResult  { matchId, players, winner, score }  -> the players' new ranks
+ *  GET  /leaderboard?limit=n            best n players (default 100)
+ *  GET  /leaderboard/rank/{player}      a player's rank and wins
+ *  GET  /leaderboard/around/{rank}?radius=r  the players ranked rank-r to rank+r
+ *
+ * Wins are kept in a {@link RankIndex}, so every request is O(log n) in
+ * the number of players (plus the entries returned).
  */
 @RestController
 @RequestMapping("/api")
 public class ScoreboardController {
 
-    // In-memory simple store: player -> wins
-    private final Map<String, Integer> wins = new ConcurrentHashMap<>();
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_RADIUS = 100;
+
+    // In-memory simple store: player -> wins, ordered for rank queries
+    private final RankIndex ranks = new RankIndex();
 
     @PostMapping("/matchResult")
     public Map<String, Object> postResult(@RequestBody MatchResult result) {
+        // Everyone who played is on the board, so everyone gets a rank back
+        if (result.getPlayers() != null) {
+            for (String player : result.getPlayers()) {
+                if (player != null) ranks.register(player);
+            }
+        }
         // increment winner count
         if (result.getWinner() != null) {
-            wins.merge(result.getWinner(), 1, Integer::sum);
+            ranks.addWin(result.getWinner());
         }
         Map<String, Object> resp = new HashMap<>();
         resp.put("status", "ok");
         resp.put("winner", result.getWinner());
+        Map<String, Integer> playerRanks = new LinkedHashMap<>();
+        if (result.getPlayers() != null) {
+            for (String player : result.getPlayers()) {
+                if (player != null) playerRanks.put(player, ranks.rankOf(player).rank());
+            }
+        }
+        if (result.getWinner() != null) playerRanks.put(result.getWinner(), ranks.rankOf(result.getWinner()).rank());
+        resp.put("ranks", playerRanks);
         return resp;
     }
 
     @GetMapping("/leaderboard")
-    public List<Map.Entry<String,Integer>> leaderboard() {
-        List<Map.Entry<String,Integer>> list = new ArrayList<>(wins.entrySet());
-        list.sort((a,b) -> Integer.compare(b.getValue(), a.getValue()));
+    public List<Map.Entry<String,Integer>> leaderboard(@RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        List<Map.Entry<String,Integer>> list = new ArrayList<>();
+        for (RankIndex.Ranked r : ranks.top(Math.min(MAX_LIMIT, limit))) {
+            list.add(Map.entry(r.player(), r.wins()));
+        }
         return list;
     }
 
+    @GetMapping("/leaderboard/rank/{player}")
+    public ResponseEntity<Map<String, Object>> rank(@PathVariable String player) {
+        RankIndex.Ranked r = ranks.rankOf(player);
+        if (r == null) return ResponseEntity.notFound().build();
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("player", r.player());
+        resp.put("wins", r.wins());
+        resp.put("rank", r.rank());
+        resp.put("players", ranks.size());
+        return ResponseEntity.ok(resp);
+    }
+
+    @GetMapping("/leaderboard/around/{rank}")
+    public ResponseEntity<List<RankIndex.Ranked>> around(@PathVariable int rank,
+                                                         @RequestParam(defaultValue = "5") int radius) {
+        if (rank < 1 || radius < 0) return ResponseEntity.badRequest().build();
+        int r = Math.min(MAX_RADIUS, radius);
+        return ResponseEntity.ok(ranks.range(rank - r, (int) Math.min(Integer.MAX_VALUE, (long) rank + r)));
+    }
+
     public static class MatchResult {
         private String matchId;
         private List<String> players;
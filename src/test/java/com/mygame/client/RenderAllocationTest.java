@@ -0,0 +1,131 @@
+package com.mygame.client;
+
+import com.mygame.engine.Ball;
+import com.mygame.engine.InputFrame;
+import com.mygame.engine.Pitch;
+import com.mygame.engine.Player;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The render path with the real sprites loaded must not allocate per frame.
+ * Frames are drawn with every item dirty (pitch copy, sprites, glyph HUD)
+ * on the test thread, which is allowed for a canvas outside a scene, and the
+ * JVM's per-thread allocation counter is read around them. Runs headless on
+ * Monocle (see the surefire configuration); skipped where JavaFX's native
+ * text libraries are missing.
+ */
+class RenderAllocationTest {
+
+    private static final int WARMUP_FRAMES = 3_000;
+    private static final int FRAMES = 5_000;
+    // Slack for the odd lazily grown buffer; one allocation per frame is far above this
+    private static final long BUDGET_BYTES_PER_FRAME = 8;
+
+    @TempDir
+    static Path spool;
+
+    private static GameState state;
+
+    @BeforeAll
+    static void startToolkit() throws Exception {
+        Platform.startup(() -> { });
+        // Text layout is native (pango on Linux); without it nothing here can draw
+        String missing = onFxThread(() -> {
+            try {
+                new Text("Hg").getLayoutBounds();
+                return null;
+            } catch (LinkageError e) {
+                return e.toString();
+            }
+        });
+        assumeTrue(missing == null, "JavaFX text stack unavailable: " + missing);
+    }
+
+    @AfterAll
+    static void stopToolkit() {
+        if (state != null) state.close();
+        Platform.exit();
+    }
+
+    @Test
+    void fullFramesDoNotAllocate() throws Exception {
+        AssetLoader.Assets assets = new AssetLoader(new SpriteCache(null)).load();
+        assertTrue(assets.getAtlas().strip("striker").size() > 0, "striker sprites should load");
+
+        Canvas canvas = new Canvas(Pitch.WIDTH, Pitch.HEIGHT);
+        RenderSystem render = new RenderSystem(canvas.getGraphicsContext2D());
+        state = new GameState(render, new UIController(), new RestClient(spool));
+        state.initLocalGame(new Player("Player 1", 1, true),
+                            new Player("Player 2", 2, false),
+                            new Ball(Pitch.WIDTH / 2.0, Pitch.HEIGHT - 140));
+        // Atlas textures, glyphs and the pitch layer are snapshots: first frame on the FX thread
+        onFxThread(() -> {
+            render.setAssets(assets);
+            render.render(state);
+            return null;
+        });
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_FRAMES; i++) frame(canvas, render, i);
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < FRAMES; i++) frame(canvas, render, i);
+        long perFrame = (threads.getThreadAllocatedBytes(thread) - before) / FRAMES;
+
+        assertTrue(perFrame <= BUDGET_BYTES_PER_FRAME, "render allocated " + perFrame + " B/frame");
+    }
+
+    @Test
+    void textOutsideTheAtlasIsDrawnNotReplaced() throws Exception {
+        int[] accented = onFxThread(() -> drawText("é"));
+        int[] question = onFxThread(() -> drawText("?"));
+        assertFalse(Arrays.equals(accented, question), "non-ASCII text came out as '?'");
+    }
+
+    private static void frame(Canvas canvas, RenderSystem render, int i) {
+        state.getMatch().update(InputFrame.NONE);
+        state.getBall().setPosition(Pitch.WIDTH / 2.0 + (i & 63), Pitch.HEIGHT - 140);
+        render.renderBackground(); // everything dirty
+        render.render(state);
+        canvas.getGraphicsContext2D().clearRect(0, 0, Pitch.WIDTH, Pitch.HEIGHT);
+    }
+
+    private static int[] drawText(String text) {
+        GlyphAtlas glyphs = new GlyphAtlas(Font.font("Arial", 24), Color.WHITE);
+        Canvas canvas = new Canvas(40, 40);
+        glyphs.drawText(canvas.getGraphicsContext2D(), text, 5, 30);
+        WritableImage image = canvas.snapshot(null, null);
+        int[] pixels = new int[40 * 40];
+        image.getPixelReader().getPixels(0, 0, 40, 40,
+                PixelFormat.getIntArgbInstance(), IntBuffer.wrap(pixels), 40);
+        return pixels;
+    }
+
+    private static <T> T onFxThread(Callable<T> work) throws Exception {
+        FutureTask<T> task = new FutureTask<>(work);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.mygame.sim;
+
+import com.mygame.engine.MatchRules;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every shootout finishes, whatever shooting time and power range the
+ * config allows; a weak or forced shot used to leave the ball creeping
+ * along the pitch forever.
+ */
+class ShootoutSimulatorTest {
+
+    private static final long SHOOTOUTS = 2_000;
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // maxTimeToShoot (ms), minPower, maxPower (px/tick)
+            "1250, 5, 20",
+            "3500, 5, 20",
+            "16, 0, 20",
+            "250, 0, 1",
+            "2000, 1, 3",
+            "5000, 14, 15",
+            "1000, 20, 40",
+    })
+    @Timeout(value = 60, unit = TimeUnit.SECONDS, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void everyShootoutFinishes(int maxTimeToShoot, int minPower, int maxPower) {
+        Difficulty difficulty = new Difficulty(1.2, maxTimeToShoot, minPower, maxPower);
+        ShootoutStats stats = new ShootoutSimulator(pool, MatchRules.DEFAULT).run(difficulty, SHOOTOUTS, 7L);
+        assertEquals(SHOOTOUTS, stats.getShootouts());
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "2.0, 1", "31.0, 254" })
+    @Timeout(value = 60, unit = TimeUnit.SECONDS, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void everyShootoutFinishesAtTheSpeedLimits(double ballSpeed, int maxRounds) {
+        MatchRules rules = new MatchRules(ballSpeed, 0.02, maxRounds);
+        ShootoutStats stats = new ShootoutSimulator(pool, rules).run(Difficulty.DEFAULT, SHOOTOUTS / 10, 7L);
+        assertEquals(SHOOTOUTS / 10, stats.getShootouts());
+    }
+}